@@ -0,0 +1,93 @@
+// Throughput engines: the thread-safe RoutingEngine (single queries from several threads at
+// once, and a whole query batch through replay) and the many-to-many DistanceMatrix.
+
+package navigation.benchmarks;
+
+import navigation.DistanceMatrix;
+import navigation.RoadGraph;
+import navigation.Route;
+import navigation.RoutingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+public class BatchBenchmarks {
+    private static final int QUERY_THREADS = 4;
+    private static final int MATRIX_SIDE = 64; // sources and targets of the matrix benchmark
+
+    @Param({"bundled", "10000", "100000"})
+    public String graph;
+
+    private RoadGraph roadGraph;
+    private RoutingEngine engine;
+    private int[][] queries;
+    private int[] sources;
+    private int[] targets;
+    private int[] matrixSources;
+    private int[] matrixTargets;
+
+    /**
+     * Position of one benchmark thread in the query list
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        roadGraph = BenchmarkGraphs.load(graph);
+        engine = new RoutingEngine(roadGraph);
+        queries = BenchmarkGraphs.queries(roadGraph);
+
+        sources = new int[queries.length];
+        targets = new int[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            sources[i] = queries[i][0];
+            targets[i] = queries[i][1];
+        }
+        matrixSources = new int[MATRIX_SIDE];
+        matrixTargets = new int[MATRIX_SIDE];
+        for (int i = 0; i < MATRIX_SIDE; i++) {
+            matrixSources[i] = queries[i][0];
+            matrixTargets[i] = queries[i][1];
+        }
+    }
+
+    @Benchmark
+    @Threads(QUERY_THREADS)
+    public Route engineRoute(Cursor cursor) {
+        int[] query = queries[cursor.next];
+        cursor.next = (cursor.next + 1) & (BenchmarkGraphs.QUERY_COUNT - 1);
+        return engine.findRoute(query[0], query[1]);
+    }
+
+    @Benchmark
+    public double[] engineReplay() {
+        return engine.replay(sources, targets);
+    }
+
+    @Benchmark
+    public DistanceMatrix matrix() {
+        return DistanceMatrix.compute(roadGraph, matrixSources, matrixTargets);
+    }
+}
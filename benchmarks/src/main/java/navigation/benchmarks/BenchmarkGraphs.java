@@ -0,0 +1,91 @@
+// Graphs and query sets shared by the benchmarks. "bundled" is the 81-province data in
+// src/datas (override the directory with -Dnavigation.data=...); a number is a network of
+// that many cities from NetworkGenerator, written once to the temp directory and reused
+// by later forks and runs.
+
+package navigation.benchmarks;
+
+import navigation.NetworkGenerator;
+import navigation.RoadGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+final class BenchmarkGraphs {
+    static final String BUNDLED = "bundled";
+    static final int QUERY_COUNT = 1024; // power of two, so benchmarks can cycle with a mask
+    private static final long QUERY_SEED = 42L;
+
+    private BenchmarkGraphs() {
+    }
+
+    static String coordinatesPath(String graph) throws IOException {
+        return BUNDLED.equals(graph) ? dataDir() + "/city-coordinates.txt" : generated(graph)[0];
+    }
+
+    static String roadsPath(String graph) throws IOException {
+        return BUNDLED.equals(graph) ? dataDir() + "/cities-roads.txt" : generated(graph)[1];
+    }
+
+    static RoadGraph load(String graph) throws IOException {
+        return RoadGraph.load(coordinatesPath(graph), roadsPath(graph));
+    }
+
+    private static String dataDir() {
+        return System.getProperty("navigation.data", "src/datas");
+    }
+
+    // Write the generated files unless an earlier run already did
+    private static String[] generated(String graph) throws IOException {
+        int numCities = Integer.parseInt(graph);
+        String prefix = System.getProperty("java.io.tmpdir") + "/navigation-" + numCities + "-" + NetworkGenerator.DEFAULT_SEED;
+        String[] paths = {prefix + "-coordinates.txt", prefix + "-roads.txt"};
+        if (!new File(paths[0]).exists() || !new File(paths[1]).exists()) {
+            NetworkGenerator.generate(numCities, NetworkGenerator.DEFAULT_SEED, paths[0], paths[1]);
+        }
+        return paths;
+    }
+
+    /**
+     * Fixed random (source, target) pairs that have a route between them
+     */
+    static int[][] queries(RoadGraph graph) {
+        int[] component = components(graph);
+        Random random = new Random(QUERY_SEED);
+        int[][] queries = new int[QUERY_COUNT][];
+        for (int i = 0; i < QUERY_COUNT; ) {
+            int source = random.nextInt(graph.cityCount());
+            int target = random.nextInt(graph.cityCount());
+            if (component[source] == component[target]) {
+                queries[i++] = new int[]{source, target};
+            }
+        }
+        return queries;
+    }
+
+    // Connected component of every city (the bundled map has islands of provinces)
+    private static int[] components(RoadGraph graph) {
+        int[] component = new int[graph.cityCount()];
+        Arrays.fill(component, -1);
+        int[] stack = new int[graph.cityCount()];
+        for (int start = 0; start < graph.cityCount(); start++) {
+            if (component[start] != -1) continue;
+            int size = 0;
+            stack[size++] = start;
+            component[start] = start;
+            while (size > 0) {
+                int city = stack[--size];
+                for (int e = graph.edgeStart(city); e < graph.edgeEnd(city); e++) {
+                    int neighbor = graph.edgeTarget(e);
+                    if (component[neighbor] == -1) {
+                        component[neighbor] = start;
+                        stack[size++] = neighbor;
+                    }
+                }
+            }
+        }
+        return component;
+    }
+}
@@ -0,0 +1,111 @@
+// The original matrix-based methods of the app class, kept as a baseline for the engines.
+// That class lives in the default package, which cannot be imported from a named package,
+// so its static methods are looked up once by name and called through method handles
+// (invokeExact on a static final handle is inlined like a direct call).
+// getRoadConnections reads src/datas/cities-roads.txt itself, so these run on the bundled
+// data only.
+
+package navigation.benchmarks;
+
+import navigation.RoadGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class LegacyBenchmarks {
+    private static final MethodHandle GET_ROAD_CONNECTIONS;
+    private static final MethodHandle FIND_SHORTEST_PATH;
+    private static final MethodHandle GET_CITY_INDEX;
+    private static final MethodHandle GET_TOTAL_DISTANCE;
+
+    static {
+        try {
+            Class<?> app = Class.forName("berker_kelesoglu");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            GET_ROAD_CONNECTIONS = lookup.findStatic(app, "getRoadConnections",
+                    MethodType.methodType(double[][].class, String[].class, double[].class, double[].class));
+            FIND_SHORTEST_PATH = lookup.findStatic(app, "findShortestPath",
+                    MethodType.methodType(ArrayList.class, String.class, String.class, double[][].class, String[].class));
+            GET_CITY_INDEX = lookup.findStatic(app, "getCityIndex",
+                    MethodType.methodType(int.class, String.class, String[].class));
+            GET_TOTAL_DISTANCE = lookup.findStatic(app, "getTotalDistance",
+                    MethodType.methodType(double.class, ArrayList.class, double[][].class, String[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private String[] cityNames;
+    private double[] xCoordinates;
+    private double[] yCoordinates;
+    private double[][] matrix;
+    private String[][] queries;
+    private List<ArrayList<String>> paths;
+    private int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Throwable {
+        RoadGraph roadGraph = BenchmarkGraphs.load(BenchmarkGraphs.BUNDLED);
+        cityNames = roadGraph.cityNames();
+        xCoordinates = roadGraph.xCoordinates();
+        yCoordinates = roadGraph.yCoordinates();
+        matrix = (double[][]) GET_ROAD_CONNECTIONS.invokeExact(cityNames, xCoordinates, yCoordinates);
+
+        int[][] cityQueries = BenchmarkGraphs.queries(roadGraph);
+        queries = new String[cityQueries.length][];
+        paths = new ArrayList<>(cityQueries.length);
+        for (int i = 0; i < cityQueries.length; i++) {
+            queries[i] = new String[]{cityNames[cityQueries[i][0]], cityNames[cityQueries[i][1]]};
+            paths.add((ArrayList<String>) FIND_SHORTEST_PATH.invokeExact(queries[i][0], queries[i][1], matrix, cityNames));
+        }
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = (next + 1) & (BenchmarkGraphs.QUERY_COUNT - 1);
+        return index;
+    }
+
+    @Benchmark
+    public double[][] getRoadConnections() throws Throwable {
+        return (double[][]) GET_ROAD_CONNECTIONS.invokeExact(cityNames, xCoordinates, yCoordinates);
+    }
+
+    @Benchmark
+    public ArrayList<?> findShortestPath() throws Throwable {
+        String[] query = queries[nextIndex()];
+        return (ArrayList<?>) FIND_SHORTEST_PATH.invokeExact(query[0], query[1], matrix, cityNames);
+    }
+
+    @Benchmark
+    public int getCityIndex() throws Throwable {
+        return (int) GET_CITY_INDEX.invokeExact(queries[nextIndex()][1], cityNames);
+    }
+
+    @Benchmark
+    public double getTotalDistance() throws Throwable {
+        return (double) GET_TOTAL_DISTANCE.invokeExact(paths.get(nextIndex()), matrix, cityNames);
+    }
+}
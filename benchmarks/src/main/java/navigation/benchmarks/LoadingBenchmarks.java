@@ -0,0 +1,74 @@
+// Startup cost: reading the data files (text, or the binary GraphFile written from them in
+// setup) into a RoadGraph, and building the indexes the app creates right after loading.
+// One cold call per iteration (single-shot), since startup only happens once per process.
+
+package navigation.benchmarks;
+
+import navigation.CityKdTree;
+import navigation.GraphFile;
+import navigation.RoadGraph;
+import navigation.RoadSegmentTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+public class LoadingBenchmarks {
+    @Param({"bundled", "100000", "1000000"})
+    public String graph;
+
+    private String coordinatesPath;
+    private String roadsPath;
+    private String graphPath;
+    private RoadGraph roadGraph;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        coordinatesPath = BenchmarkGraphs.coordinatesPath(graph);
+        roadsPath = BenchmarkGraphs.roadsPath(graph);
+        roadGraph = RoadGraph.load(coordinatesPath, roadsPath);
+
+        File graphFile = File.createTempFile("navigation-" + graph + "-", ".graph");
+        graphFile.deleteOnExit();
+        graphPath = graphFile.getPath();
+        GraphFile.write(roadGraph, graphPath);
+    }
+
+    @Benchmark
+    public RoadGraph loadText() throws IOException {
+        return RoadGraph.load(coordinatesPath, roadsPath);
+    }
+
+    @Benchmark
+    public RoadGraph loadBinary() throws IOException {
+        return GraphFile.read(graphPath);
+    }
+
+    @Benchmark
+    public CityKdTree buildCityTree() {
+        return CityKdTree.build(roadGraph);
+    }
+
+    @Benchmark
+    public RoadSegmentTree buildRoadTree() {
+        return RoadSegmentTree.build(roadGraph);
+    }
+}
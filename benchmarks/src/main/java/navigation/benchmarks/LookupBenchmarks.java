@@ -0,0 +1,93 @@
+// Lookups outside the searches: city names, nearest city and nearest road to a click, and
+// the roads inside a viewport.
+
+package navigation.benchmarks;
+
+import navigation.CityKdTree;
+import navigation.RoadGraph;
+import navigation.RoadPosition;
+import navigation.RoadSegmentTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+public class LookupBenchmarks {
+    private static final double MAP_WIDTH = 2377;
+    private static final double MAP_HEIGHT = 1055;
+    private static final double CLICK_RADIUS = 25;
+    private static final double VIEWPORT_SHARE = 0.25; // viewport side, share of the map side
+
+    @Param({"bundled", "100000", "1000000"})
+    public String graph;
+
+    private RoadGraph roadGraph;
+    private CityKdTree cityTree;
+    private RoadSegmentTree roadTree;
+    private String[] names;
+    private double[][] points;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        roadGraph = BenchmarkGraphs.load(graph);
+        cityTree = CityKdTree.build(roadGraph);
+        roadTree = RoadSegmentTree.build(roadGraph);
+
+        Random random = new Random(7);
+        names = new String[BenchmarkGraphs.QUERY_COUNT];
+        points = new double[BenchmarkGraphs.QUERY_COUNT][];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = roadGraph.cityName(random.nextInt(roadGraph.cityCount()));
+            points[i] = new double[]{random.nextDouble() * MAP_WIDTH, random.nextDouble() * MAP_HEIGHT};
+        }
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = (next + 1) & (BenchmarkGraphs.QUERY_COUNT - 1);
+        return index;
+    }
+
+    @Benchmark
+    public int cityIndex() {
+        return roadGraph.indexOf(names[nextIndex()]);
+    }
+
+    @Benchmark
+    public int nearestCity() {
+        double[] point = points[nextIndex()];
+        return cityTree.nearest(point[0], point[1], CLICK_RADIUS);
+    }
+
+    @Benchmark
+    public RoadPosition nearestRoad() {
+        double[] point = points[nextIndex()];
+        return roadTree.nearest(point[0], point[1], Double.POSITIVE_INFINITY);
+    }
+
+    @Benchmark
+    public int[] viewport() {
+        double[] point = points[nextIndex()];
+        return roadTree.window(point[0], point[1],
+                point[0] + MAP_WIDTH * VIEWPORT_SHARE, point[1] + MAP_HEIGHT * VIEWPORT_SHARE);
+    }
+}
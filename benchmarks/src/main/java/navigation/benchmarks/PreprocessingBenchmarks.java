@@ -0,0 +1,61 @@
+// Preprocessing cost of the engines that prepare data before their first query: the
+// contraction hierarchy and the ALT landmark tables (the all-pairs table is measured in
+// SmallGraphBenchmarks, since it only fits province-sized graphs). One cold build per
+// iteration (single-shot), like the app's first query in that mode.
+// Every build registers itself as a road listener; it is removed again so the graph does
+// not keep all earlier builds alive.
+
+package navigation.benchmarks;
+
+import navigation.ContractionHierarchy;
+import navigation.LandmarkHeuristic;
+import navigation.RoadGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+public class PreprocessingBenchmarks {
+    private static final int LANDMARK_COUNT = 6;
+
+    @Param({"bundled", "10000", "100000"})
+    public String graph;
+
+    private RoadGraph roadGraph;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        roadGraph = BenchmarkGraphs.load(graph);
+    }
+
+    @Benchmark
+    public ContractionHierarchy buildHierarchy() {
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(roadGraph);
+        roadGraph.removeRoadListener(hierarchy);
+        return hierarchy;
+    }
+
+    @Benchmark
+    public LandmarkHeuristic selectLandmarks() {
+        LandmarkHeuristic landmarks = new LandmarkHeuristic(roadGraph, LANDMARK_COUNT);
+        roadGraph.removeRoadListener(landmarks);
+        return landmarks;
+    }
+}
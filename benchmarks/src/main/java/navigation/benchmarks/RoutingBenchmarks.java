@@ -0,0 +1,111 @@
+// Point-to-point query latency of every routing engine that scales to large graphs.
+// Each invocation answers the next of a fixed set of random queries; preprocessing
+// (hierarchy, landmarks, traffic profiles) happens once per trial and is not measured.
+
+package navigation.benchmarks;
+
+import navigation.AStarPathFinder;
+import navigation.BidirectionalPathFinder;
+import navigation.ConstrainedPathFinder;
+import navigation.ContractionHierarchy;
+import navigation.ContractionHierarchyPathFinder;
+import navigation.DijkstraPathFinder;
+import navigation.EuclideanHeuristic;
+import navigation.LandmarkHeuristic;
+import navigation.PathFinder;
+import navigation.RoadGraph;
+import navigation.Route;
+import navigation.RouteConstraints;
+import navigation.ShortestPathTreeCache;
+import navigation.TimeDependentPathFinder;
+import navigation.TrafficProfiles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+public class RoutingBenchmarks {
+    private static final int LANDMARK_COUNT = 6;
+    private static final long TREE_CACHE_BYTES = 64L * 1024 * 1024;
+    private static final double FREE_FLOW_SPEED = 90.0;
+
+    @Param({"bundled", "10000", "100000"})
+    public String graph;
+
+    @Param({"Dijkstra", "AStar", "Bidirectional", "BidirectionalAStar", "CH", "ALT", "CachedTrees", "Traffic", "Constrained"})
+    public String engine;
+
+    private PathFinder pathFinder;
+    private int[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        RoadGraph roadGraph = BenchmarkGraphs.load(graph);
+        queries = BenchmarkGraphs.queries(roadGraph);
+        pathFinder = create(engine, roadGraph);
+    }
+
+    static PathFinder create(String engine, RoadGraph roadGraph) {
+        switch (engine) {
+            case "Dijkstra":
+                return new DijkstraPathFinder(roadGraph);
+            case "AStar":
+                return new AStarPathFinder(roadGraph);
+            case "Bidirectional":
+                return new BidirectionalPathFinder(roadGraph);
+            case "BidirectionalAStar":
+                return new BidirectionalPathFinder(roadGraph, new EuclideanHeuristic(roadGraph));
+            case "CH":
+                return new ContractionHierarchyPathFinder(ContractionHierarchy.build(roadGraph));
+            case "ALT":
+                return new AStarPathFinder(roadGraph, new LandmarkHeuristic(roadGraph, LANDMARK_COUNT));
+            case "CachedTrees":
+                return new ShortestPathTreeCache(roadGraph, TREE_CACHE_BYTES);
+            case "Traffic": {
+                // Rush hours on every tenth road
+                TrafficProfiles profiles = TrafficProfiles.freeFlow(roadGraph, FREE_FLOW_SPEED);
+                for (int road = 0; road < roadGraph.roadCount(); road += 10) {
+                    profiles.scaleProfile(road, TrafficProfiles.RUSH_HOUR_FACTORS);
+                }
+                return new TimeDependentPathFinder(roadGraph, profiles);
+            }
+            case "Constrained": {
+                // Every fiftieth road forbidden (no hop limit: its state space is cities x hops)
+                RouteConstraints constraints = new RouteConstraints();
+                for (int road = 0; road < roadGraph.roadCount(); road += 50) {
+                    constraints.forbidRoad(road);
+                }
+                ConstrainedPathFinder finder = new ConstrainedPathFinder(roadGraph);
+                finder.setConstraints(constraints);
+                return finder;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+
+    @Benchmark
+    public Route route() {
+        int[] query = queries[next];
+        next = (next + 1) & (BenchmarkGraphs.QUERY_COUNT - 1);
+        return pathFinder.findRoute(query[0], query[1]);
+    }
+}
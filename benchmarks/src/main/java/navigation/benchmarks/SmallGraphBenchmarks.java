@@ -0,0 +1,135 @@
+// Engines meant for province-sized graphs: the all-pairs table (V x V memory, its build
+// timed too), the alternative-route finders (several searches per query), tour planning
+// and reachability.
+
+package navigation.benchmarks;
+
+import navigation.DistanceTable;
+import navigation.Isochrone;
+import navigation.IsochroneSearch;
+import navigation.KShortestPaths;
+import navigation.PlateauAlternativeRoutes;
+import navigation.RoadGraph;
+import navigation.Route;
+import navigation.Tour;
+import navigation.TourPlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class SmallGraphBenchmarks {
+    private static final int ROUTE_COUNT = 3;  // routes asked from the alternative-route finders
+    private static final int TOUR_STOPS = 8;   // solved exactly (Held-Karp)
+    private static final double BUDGET_SHARE = 0.25; // reachability budget, share of the longest query
+
+    @Param({"bundled", "2000"})
+    public String graph;
+
+    private RoadGraph roadGraph;
+    private DistanceTable table;
+    private KShortestPaths kShortestPaths;
+    private PlateauAlternativeRoutes plateaus;
+    private TourPlanner tourPlanner;
+    private IsochroneSearch isochroneSearch;
+    private int[][] queries;
+    private int[][] tours;
+    private double budget;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        roadGraph = BenchmarkGraphs.load(graph);
+        queries = BenchmarkGraphs.queries(roadGraph);
+        table = DistanceTable.compute(roadGraph);
+        kShortestPaths = new KShortestPaths(roadGraph);
+        plateaus = new PlateauAlternativeRoutes(roadGraph);
+        tourPlanner = new TourPlanner(roadGraph);
+        isochroneSearch = new IsochroneSearch(roadGraph);
+
+        // Tours through the sources of consecutive queries: the first query's component,
+        // so every stop can reach every other
+        tours = new int[BenchmarkGraphs.QUERY_COUNT][];
+        for (int i = 0; i < tours.length; i++) {
+            int[] stops = new int[TOUR_STOPS];
+            stops[0] = queries[i][0];
+            for (int s = 1, q = i; s < TOUR_STOPS; q = (q + 1) & (BenchmarkGraphs.QUERY_COUNT - 1)) {
+                if (table.findDistance(stops[0], queries[q][1]) != Double.POSITIVE_INFINITY) {
+                    stops[s++] = queries[q][1];
+                }
+            }
+            tours[i] = stops;
+        }
+
+        double longest = 0.0;
+        for (int[] query : queries) {
+            longest = Math.max(longest, table.findDistance(query[0], query[1]));
+        }
+        budget = longest * BUDGET_SHARE;
+    }
+
+    private int[] nextQuery() {
+        int[] query = queries[next];
+        next = (next + 1) & (BenchmarkGraphs.QUERY_COUNT - 1);
+        return query;
+    }
+
+    // One cold build per call; the table is removed from the graph's listeners again so
+    // earlier builds can be collected
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DistanceTable buildTable() {
+        DistanceTable built = DistanceTable.compute(roadGraph);
+        roadGraph.removeRoadListener(built);
+        return built;
+    }
+
+    @Benchmark
+    public Route table() {
+        int[] query = nextQuery();
+        return table.findRoute(query[0], query[1]);
+    }
+
+    @Benchmark
+    public List<Route> kShortestPaths() {
+        int[] query = nextQuery();
+        return kShortestPaths.findRoutes(query[0], query[1], ROUTE_COUNT);
+    }
+
+    @Benchmark
+    public List<Route> plateaus() {
+        int[] query = nextQuery();
+        return plateaus.findRoutes(query[0], query[1], ROUTE_COUNT);
+    }
+
+    @Benchmark
+    public Tour tour() {
+        int[] stops = tours[next];
+        next = (next + 1) & (BenchmarkGraphs.QUERY_COUNT - 1);
+        return tourPlanner.plan(stops, true);
+    }
+
+    @Benchmark
+    public Isochrone isochrone() {
+        return isochroneSearch.reachable(nextQuery()[0], budget);
+    }
+}
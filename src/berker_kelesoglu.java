@@ -9,9 +9,39 @@
 import java.awt.Font;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
+import navigation.AStarPathFinder;
+import navigation.AlternativeRouteFinder;
+import navigation.BidirectionalPathFinder;
+import navigation.CityIndex;
+import navigation.CityKdTree;
+import navigation.ContractionHierarchy;
+import navigation.ContractionHierarchyPathFinder;
+import navigation.DijkstraPathFinder;
+import navigation.DistanceTable;
+import navigation.EuclideanHeuristic;
+import navigation.GraphFile;
+import navigation.Isochrone;
+import navigation.IsochroneSearch;
+import navigation.KShortestPaths;
+import navigation.LandmarkHeuristic;
+import navigation.PathFinder;
+import navigation.PlateauAlternativeRoutes;
+import navigation.RoadGraph;
+import navigation.RoadPosition;
+import navigation.RoadSegmentTree;
+import navigation.Route;
+import navigation.ShortestPathTreeCache;
+import navigation.TimeDependentPathFinder;
+import navigation.TimedRoute;
+import navigation.Tour;
+import navigation.TourPlanner;
+import navigation.TrafficProfiles;
+
 public final class berker_kelesoglu {
     private static String departureCity = "";
     private static String destinationCity = "";
@@ -23,11 +53,78 @@ public final class berker_kelesoglu {
     private static double[] xCoordinates;
     private static double[] yCoordinates;
 
+    // Road network loaded once at startup, shared by routing and drawing
+    private static RoadGraph roadGraph;
+
+    // Routing engines selectable with the mode button (same order as the labels)
+    private static final String[] ROUTING_MODES = {"Dijkstra", "A*", "Bidirectional", "Bidirectional A*", "CH", "ALT", "Table", "Cached trees", "Top 3 (Yen)", "Plateaus", "Traffic 08:00"};
+    private static final int TABLE_MODE = 6; // index of "Table" in ROUTING_MODES
+    private static final int LANDMARK_COUNT = 6; // landmarks used by the ALT heuristic
+    private static final int TABLE_CITY_LIMIT = 2000; // largest graph that gets an all-pairs table (12 * V * V bytes, 48 MB here)
+    private static final long TREE_CACHE_BYTES = 1024 * 1024; // memory cap of the shortest-path tree cache
+    private static ShortestPathTreeCache treeCache;
+    private static final int ALTERNATIVE_COUNT = 3; // routes shown by the alternative-route modes
+    private static final double FREE_FLOW_SPEED = 90.0; // km/h on an empty road, for the traffic mode
+    private static final String[] CONGESTED_CITIES = {"Istanbul", "Kocaeli", "Ankara", "Izmir", "Bursa"}; // rush hours on their roads
+
+    // Colours of alternative routes, best route first (drawn last, on top). Same values as
+    // StdDraw.GREEN, ORANGE, MAGENTA and CYAN, but plain AWT colours: touching StdDraw here
+    // would open its window as soon as the class loads, which breaks headless benchmarks
+    private static final java.awt.Color[] ROUTE_COLORS = {
+            new java.awt.Color(0, 128, 0), java.awt.Color.ORANGE, java.awt.Color.MAGENTA, java.awt.Color.CYAN};
+    // Translucent fills of the reachability bands, closest band first
+    private static final java.awt.Color[] BAND_COLORS = {
+            new java.awt.Color(0, 150, 0, 110), new java.awt.Color(230, 200, 0, 110), new java.awt.Color(240, 120, 0, 110)};
+    private static IsochroneSearch isochroneSearch;
+    private static CityKdTree cityTree; // nearest city to a map click
+    private static final double CLICK_RADIUS = 25; // how far (pixels) a click may be from a city dot
+    private static RoadSegmentTree roadTree; // nearest road to a map click, roads inside the map window
+    private static final double ROAD_CLICK_RADIUS = 40; // how far (pixels) a click may be from a road
+    private static DijkstraPathFinder pointRouter; // routes that start part-way along a road
+    private static RoadPosition departurePoint; // clicked point on a road, null when departing from a city
+    private static String hierarchyPath; // contraction hierarchy file kept next to the road data
+    // Engines are built the first time their mode answers a query (see pathFinder), so a
+    // launch only pays for the graph and the road index needed to draw it
+    private static final PathFinder[] pathFinders = new PathFinder[ROUTING_MODES.length];
+    private static int routingMode = 0;
+    private static String searchInfo = ""; // engine and settled nodes of the last search
+
 
     public static void main(String[] args) {
-        // Load city data into static arrays
+        // Optional arguments: other data files, e.g. a network written by NetworkGenerator,
+        // or one binary graph file written by GraphFile
+        String graphPath = args.length == 1 ? args[0] : null;
+        String coordinatesPath = args.length >= 2 ? args[0] : "src/datas/city-coordinates.txt";
+        String roadsPath = args.length >= 2 ? args[1] : "src/datas/cities-roads.txt";
+
+        // Load city and road data once instead of re-reading the files on every query
+        long loadStart = System.nanoTime();
+        try {
+            roadGraph = graphPath != null ? GraphFile.read(graphPath) : RoadGraph.load(coordinatesPath, roadsPath);
+        } catch (FileNotFoundException e) {
+            System.err.println("Error: city data file not found! " + e.getMessage());
+            e.printStackTrace();
+            return;
+        } catch (IOException e) {
+            System.err.println("Error: could not read the graph file! " + e.getMessage());
+            return;
+        }
+        double loadMillis = (System.nanoTime() - loadStart) / 1_000_000.0;
+        System.out.println("Road graph loaded: " + roadGraph.cityCount() + " cities, "
+                + roadGraph.roadCount() + " roads in " + String.format("%.2f", loadMillis) + " ms");
+
+        // Keep city data in static arrays for the drawing code
+        cityNames = roadGraph.cityNames();
+        xCoordinates = roadGraph.xCoordinates();
+        yCoordinates = roadGraph.yCoordinates();
+        hierarchyPath = (graphPath != null ? graphPath : roadsPath).replaceFirst("\\.(txt|graph)$", "") + ".ch";
+        if (!isModeAvailable(TABLE_MODE)) {
+            System.out.println("Table mode disabled: more than " + TABLE_CITY_LIMIT + " cities");
+        }
+        roadTree = RoadSegmentTree.build(roadGraph); // needed to draw the first frame
+
         renderMapWithCities();
-        drawRoads(cityNames, xCoordinates, yCoordinates);
+        drawRoads(roadGraph);
         drawInputUI(null, 0.0);
         StdDraw.show();
         handleInput(cityNames, xCoordinates, yCoordinates);
@@ -83,6 +180,13 @@ public final class berker_kelesoglu {
         StdDraw.setFont(new Font("Arial", Font.BOLD, 14));
         StdDraw.text(700, 60, "Start");
 
+        // Routing mode button (click to switch engine)
+        StdDraw.setPenColor(StdDraw.LIGHT_GRAY);
+        StdDraw.filledRectangle(700, 110, 60, 10);
+        StdDraw.setPenColor(StdDraw.BLACK);
+        StdDraw.setFont(new Font("Arial", Font.PLAIN, 10));
+        StdDraw.text(700, 110, "Mode: " + ROUTING_MODES[routingMode]);
+
         // Display path information on the right side
         if (path != null && path.size() > 0) {
             StdDraw.setPenColor(StdDraw.BLACK);
@@ -95,7 +199,7 @@ public final class berker_kelesoglu {
             StdDraw.textLeft(900, 75, "Destination city: " + path.get(path.size() - 1));
 
             // Total distance
-            StdDraw.textLeft(900, 55, "Total Distance: " + String.format("%.2f", totalDistance) + " km");
+            StdDraw.textLeft(900, 55, "Total Distance: " + String.format("%.2f", totalDistance) + " " + roadGraph.distanceUnit() + "   " + searchInfo);
 
             // Build and display shortest path on one line
             String pathString = String.join(" -> ", path);
@@ -111,15 +215,6 @@ public final class berker_kelesoglu {
             StdDraw.text(450, 15, errorMessage);
         }
     }
-    /**
-     * Validate if a city name exists in the city names array
-     * @param cityName Name of the city to validate
-     * @param cityNames Array of all city names
-     * @return true if city exists, false otherwise
-     */
-    public static boolean validateCity(String cityName, String[] cityNames) {
-        return getCityIndex(cityName, cityNames) != -1;
-    }
 
     public static void handleInput(String[] cityNames, double[] xCoordinates, double[] yCoordinates) {
         boolean inputActive = true;
@@ -145,32 +240,108 @@ public final class berker_kelesoglu {
                     StdDraw.show();
                     StdDraw.pause(200); // giving timeout to get rid of from flash effect
                 }
+                // Check if routing mode button clicked
+                else if (x >= 640 && x <= 760 && y >= 100 && y <= 120) {
+                    do {
+                        routingMode = (routingMode + 1) % ROUTING_MODES.length; // switch to the next engine
+                    } while (!isModeAvailable(routingMode));
+                    drawInputUI(null, 0.0);
+                    StdDraw.show();
+                    StdDraw.pause(200);
+                }
+                // Check if a city on the map was clicked (map is drawn 130 pixels up)
+                else if (y > 130) {
+                    int city = cityTree().nearest(x, y - 130, CLICK_RADIUS);
+                    RoadPosition point = null;
+                    if (city == -1 && !activeField.equals("destination")) {
+                        point = roadTree.nearest(x, y - 130, ROAD_CLICK_RADIUS); // depart from a point on a road
+                    }
+                    if (city != -1 || point != null) {
+                        if (activeField.equals("destination")) {
+                            destinationCity = cityNames[city];
+                        } else {
+                            departurePoint = point;
+                            departureCity = point != null ? roadLabel(point) : cityNames[city];
+                            activeField = "destination"; // next click picks the destination
+                        }
+                        errorMessage = "";
+                        drawInputUI(null, 0.0);
+                        StdDraw.show();
+                    }
+                    StdDraw.pause(200);
+                }
                 // Check if Start button clicked
                 else if (x >= 640 && x <= 760 && y >= 35 && y <= 85) {
                     errorMessage = ""; // Clear previous error
-                    if (!departureCity.isEmpty() && !destinationCity.isEmpty()) { // if departure and destination names are not empty
-                        if (validateCity(departureCity, cityNames) && validateCity(destinationCity, cityNames)) { // if the city names are included in cities
+                    if (departureCity.contains(",")) { // a list of stops: plan a multi-stop tour
+                        planTour(departureCity, destinationCity);
+                    } else if (destinationCity.trim().startsWith("<")) { // "<500" or "<300,600,900": cities within a budget
+                        showReachable(departureCity, destinationCity.trim().substring(1));
+                    } else if (departurePoint != null && departureCity.equals(roadLabel(departurePoint)) && !destinationCity.isEmpty()) {
+                        showRouteFromPoint(departurePoint, destinationCity);
+                    } else if (!departureCity.isEmpty() && !destinationCity.isEmpty()) { // if departure and destination names are not empty
+                        // Prebuilt name index (also accepts lower case, Turkish letters and plate codes)
+                        if (roadGraph.indexOf(departureCity) != -1 && roadGraph.indexOf(destinationCity) != -1) { // if the city names are included in cities
                             System.out.println("Finding path from " + departureCity + " to " + destinationCity);
 
-                            // Build graph structure (using adjacency matrix - 2D array)
-                            double[][] graph = getRoadConnections(cityNames, xCoordinates, yCoordinates);  // sets distances between two cities
-
-                            // Find shortest path using Dijkstra's algorithm (array-based)
-                            ArrayList<String> path = findShortestPath(departureCity, destinationCity, graph, cityNames);
+                            // Find shortest path with the selected engine on the preloaded graph
+                            PathFinder pathFinder = pathFinder(routingMode);
+                            int source = roadGraph.indexOf(departureCity);
+                            int target = roadGraph.indexOf(destinationCity);
+                            Route route;
+                            TimedRoute timed = null;
+                            List<Route> routes = null; // all routes of the alternative-route modes, best first
+                            if (pathFinder instanceof AlternativeRouteFinder) { // the best one is the main route
+                                routes = ((AlternativeRouteFinder) pathFinder).findRoutes(source, target, ALTERNATIVE_COUNT);
+                                route = routes.isEmpty() ? null : routes.get(0);
+                            } else if (pathFinder instanceof TimeDependentPathFinder) { // keep the clock times for the console
+                                TimeDependentPathFinder timeDependent = (TimeDependentPathFinder) pathFinder;
+                                timed = timeDependent.findRoute(source, target, timeDependent.departureMinutes());
+                                route = timed != null ? timed.route() : null;
+                            } else {
+                                route = pathFinder.findRoute(source, target);
+                            }
 
                             // Display results
-                            if (path != null) {
-                                double totalDist = getTotalDistance(path, graph, cityNames);
+                            if (route != null) {
+                                ArrayList<String> path = route.toCityNames(roadGraph);
+                                double totalDist = route.distance();
+                                searchInfo = "(" + ROUTING_MODES[routingMode] + ", " + route.settledNodes() + " cities settled)";
 
                                 System.out.println("Shortest path found:");
                                 System.out.println("Path: " + String.join(" → ", path));
-                                System.out.println("Total distance: " + String.format("%.2f", totalDist) + " units");
+                                System.out.println("Total distance: " + String.format("%.2f", totalDist) + " " + roadGraph.distanceUnit());
+                                System.out.println("Settled nodes (" + ROUTING_MODES[routingMode] + "): " + route.settledNodes());
+                                if (timed != null) {
+                                    System.out.println("Departure " + TimedRoute.clock(timed.departureMinutes()) + ", arrival "
+                                            + TimedRoute.clock(timed.arrivalMinutes()) + " (" + String.format("%.0f", timed.travelMinutes()) + " min)");
+                                }
+                                if (pathFinder == treeCache) {
+                                    System.out.println("Tree cache: " + treeCache.hits() + " hits, " + treeCache.misses()
+                                            + " misses, " + treeCache.size() + "/" + treeCache.maxTrees() + " trees");
+                                }
+                                if (routingMode != 0 && route.settledNodes() > 0) {
+                                    // Compare against plain Dijkstra to show what the engine saved
+                                    Route baseline = pathFinder(0).findRoute(route.source(), route.target());
+                                    System.out.println("Settled nodes (Dijkstra): " + baseline.settledNodes() + ", speedup "
+                                            + String.format("%.2f", (double) baseline.settledNodes() / route.settledNodes()) + "x");
+                                }
 
                                 // Redraw the map to clear any previous path (without reinitializing canvas)
-                                redrawMapOnly(cityNames, xCoordinates, yCoordinates);
+                                redrawMapOnly(roadGraph);
+
+                                // Alternative-route modes: draw the other routes under the best one
+                                if (routes != null) {
+                                    for (int i = routes.size() - 1; i >= 1; i--) {
+                                        ArrayList<String> alternative = routes.get(i).toCityNames(roadGraph);
+                                        System.out.println("Alternative " + i + ": " + String.join(" → ", alternative)
+                                                + " (" + String.format("%.2f", routes.get(i).distance()) + " " + roadGraph.distanceUnit() + ")");
+                                        drawShortestPath(alternative, xCoordinates, yCoordinates, ROUTE_COLORS[i % ROUTE_COLORS.length]);
+                                    }
+                                }
 
                                 // Draw the shortest path on the map
-                                drawShortestPath(path, cityNames, xCoordinates, yCoordinates);
+                                drawShortestPath(path, xCoordinates, yCoordinates);
 
                                 // Draw UI with path information
                                 drawInputUI(path, totalDist);
@@ -224,57 +395,278 @@ public final class berker_kelesoglu {
     }
 
     /**
-     * Render map with cities and load city data into static arrays
+     * Engine of a routing mode, built on first use (the CH and table preprocessing can take
+     * seconds on a generated network, and most sessions never touch most modes)
+     * @param mode Index in ROUTING_MODES
+     * @return The engine, ready for queries
      */
-    public static void renderMapWithCities() {
-        // Render the map with space below for input UI
-        // setting canvas size and adding map.png according to width and height of canvas
-        StdDraw.setCanvasSize(2377 / 2, (1055 + 130) / 2);
-        StdDraw.setXscale(0, 2377);
-        StdDraw.setYscale(0, 1055 + 130);
-        StdDraw.picture(2380 / 2.0, (1055 + 130) / 2.0 + 65, "map.png", 2377, 1055);
+    private static PathFinder pathFinder(int mode) {
+        if (pathFinders[mode] == null) {
+            long buildStart = System.nanoTime();
+            pathFinders[mode] = createPathFinder(mode);
+            double buildMillis = (System.nanoTime() - buildStart) / 1_000_000.0;
+            System.out.println(ROUTING_MODES[mode] + " engine ready in " + String.format("%.2f", buildMillis) + " ms");
+        }
+        return pathFinders[mode];
+    }
 
-        // Temporary ArrayLists to store city data
-        ArrayList<String> cityNamesList = new ArrayList<>();
-        ArrayList<Double> xCoordsList = new ArrayList<>();
-        ArrayList<Double> yCoordsList = new ArrayList<>();
+    private static PathFinder createPathFinder(int mode) {
+        switch (ROUTING_MODES[mode]) {
+            case "Dijkstra":
+                return new DijkstraPathFinder(roadGraph);
+            case "A*":
+                return new AStarPathFinder(roadGraph);
+            case "Bidirectional":
+                return new BidirectionalPathFinder(roadGraph);
+            case "Bidirectional A*":
+                return new BidirectionalPathFinder(roadGraph, new EuclideanHeuristic(roadGraph));
+            case "CH": {
+                // Preprocessed once and kept next to the road file
+                ContractionHierarchy hierarchy = ContractionHierarchy.loadOrBuild(roadGraph, hierarchyPath);
+                System.out.println("Contraction hierarchy: " + hierarchy.shortcutCount() + " shortcuts");
+                return new ContractionHierarchyPathFinder(hierarchy);
+            }
+            case "ALT":
+                return new AStarPathFinder(roadGraph, new LandmarkHeuristic(roadGraph, LANDMARK_COUNT));
+            case "Table":
+                // All-pairs distances + next hops: a query becomes a lookup and a walk
+                return DistanceTable.compute(roadGraph);
+            case "Cached trees":
+                treeCache = new ShortestPathTreeCache(roadGraph, TREE_CACHE_BYTES);
+                return treeCache;
+            case "Top 3 (Yen)":
+                return new KShortestPaths(roadGraph);
+            case "Plateaus":
+                return new PlateauAlternativeRoutes(roadGraph);
+            case "Traffic 08:00":
+                return new TimeDependentPathFinder(roadGraph, trafficProfiles(roadGraph));
+            default:
+                throw new IllegalArgumentException("Unknown routing mode: " + ROUTING_MODES[mode]);
+        }
+    }
 
-        // Read and store city coordinates
-        try {
-            File file = new File("src/datas/city-coordinates.txt"); // get the file to scan cities line by line
-            Scanner scanner = new Scanner(file);
+    /**
+     * @return false for the table mode when the graph is too big for a V x V table; the
+     *         mode button skips it
+     */
+    private static boolean isModeAvailable(int mode) {
+        return mode != TABLE_MODE || roadGraph.cityCount() <= TABLE_CITY_LIMIT;
+    }
 
-            while (scanner.hasNextLine()) {                             // check if we are in the last line
-                String line = scanner.nextLine();                       // get the line data
-                String[] parts = line.split(", ");               // divides the line as cityName and coordinates
+    /**
+     * Nearest-city index for map clicks, built on the first click
+     */
+    private static CityKdTree cityTree() {
+        if (cityTree == null) {
+            cityTree = CityKdTree.build(roadGraph);
+        }
+        return cityTree;
+    }
 
-                if (parts.length == 3) {                                // if divided correctly we move on
-                    String cityNameValue = parts[0];                         // get the cityName
-                    double x = Double.parseDouble(parts[1]);            // get long data
-                    double y = Double.parseDouble(parts[2]);            // get lat data
+    /**
+     * Hourly travel times: free flow everywhere, rush hours on roads touching the big cities
+     * @param graph Loaded road graph
+     * @return Profiles for the traffic mode
+     */
+    private static TrafficProfiles trafficProfiles(RoadGraph graph) {
+        TrafficProfiles profiles = TrafficProfiles.freeFlow(graph, FREE_FLOW_SPEED);
+        boolean[] congested = new boolean[graph.roadCount()]; // a road between two big cities is scaled once
+        for (String name : CONGESTED_CITIES) {
+            int city = graph.indexOf(name);
+            if (city == -1) continue;
+            for (int e = graph.edgeStart(city); e < graph.edgeEnd(city); e++) {
+                int road = graph.edgeRoad(e);
+                if (!congested[road]) {
+                    congested[road] = true;
+                    profiles.scaleProfile(road, TrafficProfiles.RUSH_HOUR_FACTORS);
+                }
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * Plan and draw a multi-stop tour. The departure box holds the stops separated by commas
+     * (the first one is the start); a destination equal to the first stop makes a round trip,
+     * any other destination is visited as one more stop.
+     * @param stopList Comma-separated city names
+     * @param lastStop Text of the destination box
+     */
+    private static void planTour(String stopList, String lastStop) {
+        ArrayList<Integer> stops = new ArrayList<>();
+        for (String name : stopList.split(",")) {
+            if (name.trim().isEmpty()) continue;
+            int city = roadGraph.indexOf(name);
+            if (city == -1) {
+                showError("Unknown city in stop list: " + name.trim());
+                return;
+            }
+            stops.add(city);
+        }
+
+        boolean roundTrip = false;
+        if (!lastStop.trim().isEmpty()) {
+            int city = roadGraph.indexOf(lastStop);
+            if (city == -1) {
+                showError("Invalid destination city! Please check your input.");
+                return;
+            }
+            if (!stops.isEmpty() && city == stops.get(0)) {
+                roundTrip = true;
+            } else {
+                stops.add(city);
+            }
+        }
+        if (stops.size() < 2) {
+            showError("Please enter at least two stops separated by commas!");
+            return;
+        }
+
+        // Order the stops, then route each leg with the selected engine
+        int[] stopCities = new int[stops.size()];
+        for (int i = 0; i < stopCities.length; i++) {
+            stopCities[i] = stops.get(i);
+        }
+        Tour tour = new TourPlanner(roadGraph, pathFinder(routingMode)).plan(stopCities, roundTrip);
+        if (tour == null) {
+            showError("Some stops cannot be reached from each other!");
+            return;
+        }
+
+        ArrayList<String> path = tour.toCityNames(roadGraph);
+        searchInfo = "(" + tour.stopCount() + " stops, " + (tour.isExact() ? "exact order" : "2-opt/Or-opt order") + ")";
+        System.out.println("Tour found:");
+        System.out.println("Distance matrix: " + tour.stopCount() + " x " + tour.stopCount() + " in "
+                + String.format("%.2f", tour.matrixNanos() / 1_000_000.0) + " ms ("
+                + String.format("%.0f", tour.matrixPairsPerSecond()) + " pairs/s)");
+        for (int i = 0; i < tour.legCount(); i++) {
+            Route leg = tour.leg(i);
+            System.out.println("Leg " + (i + 1) + ": " + roadGraph.cityName(leg.source()) + " → " + roadGraph.cityName(leg.target())
+                    + " (" + String.format("%.2f", tour.legDistance(i)) + " " + roadGraph.distanceUnit() + ")");
+        }
+        System.out.println("Total distance: " + String.format("%.2f", tour.distance()) + " " + roadGraph.distanceUnit());
+
+        redrawMapOnly(roadGraph);
+        drawShortestPath(path, xCoordinates, yCoordinates);
+        drawInputUI(path, tour.distance());
+        StdDraw.show();
+    }
 
-                    // Store city data in ArrayLists
-                    cityNamesList.add(cityNameValue);
-                    xCoordsList.add(x);
-                    yCoordsList.add(y);
+    /**
+     * Shade every city reachable from the departure within one or more distance budgets
+     * (closest band darkest), using one bounded search up to the largest budget
+     * @param departure Depot city name
+     * @param budgetList Budgets separated by commas, for example "300,600,900"
+     */
+    private static void showReachable(String departure, String budgetList) {
+        int source = roadGraph.indexOf(departure);
+        if (source == -1) {
+            showError("Invalid departure city! Please check your input.");
+            return;
+        }
+
+        String[] parts = budgetList.split(",");
+        double[] budgets = new double[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                budgets[i] = Double.parseDouble(parts[i].trim());
+                if (!(budgets[i] >= 0.0)) {
+                    showError("Budgets must not be negative, for example <300,600,900");
+                    return;
                 }
             }
-            scanner.close();                                          // since we converted text file to arrays we are done
-        } catch (FileNotFoundException e) {
-            System.err.println("Error: city-coordinates.txt file not found!");
-            e.printStackTrace();
+        } catch (NumberFormatException e) {
+            showError("Budgets must be numbers, for example <300,600,900");
+            return;
         }
+        java.util.Arrays.sort(budgets);
 
-        // Convert ArrayLists to static arrays
-        cityNames = new String[cityNamesList.size()];
-        xCoordinates = new double[xCoordsList.size()];
-        yCoordinates = new double[yCoordsList.size()];
+        if (isochroneSearch == null) {
+            isochroneSearch = new IsochroneSearch(roadGraph);
+        }
+        Isochrone isochrone = isochroneSearch.reachable(source, budgets);
+        redrawMapOnly(roadGraph);
+
+        // Widest band first so the inner bands are drawn on top
+        for (int band = budgets.length - 1; band >= 0; band--) {
+            StdDraw.setPenColor(BAND_COLORS[Math.min(band, BAND_COLORS.length - 1)]);
+            int count = isochrone.count(budgets[band]);
+            System.out.println("Within " + String.format("%.0f", budgets[band]) + " " + roadGraph.distanceUnit() + " of "
+                    + roadGraph.cityName(source) + ": " + count + " cities");
+            for (int i = 0; i < count; i++) {
+                int city = isochrone.city(i);
+                StdDraw.filledCircle(xCoordinates[city], yCoordinates[city] + 130, 18);
+            }
+        }
 
-        for (int i = 0; i < cityNamesList.size(); i++) {
-            cityNames[i] = cityNamesList.get(i);
-            xCoordinates[i] = xCoordsList.get(i);
-            yCoordinates[i] = yCoordsList.get(i);
+        searchInfo = "";
+        errorMessage = "";
+        drawInputUI(null, 0.0);
+        StdDraw.show();
+    }
+
+    /**
+     * Route from a clicked point on a road: the search starts at both ends of the road,
+     * and the part of the road up to the first city is drawn as well
+     * @param start Snapped point (see RoadSegmentTree.nearest)
+     * @param destination Destination city name
+     */
+    private static void showRouteFromPoint(RoadPosition start, String destination) {
+        int target = roadGraph.indexOf(destination);
+        if (target == -1) {
+            showError("Invalid destination city! Please check your input.");
+            return;
+        }
+
+        if (pointRouter == null) {
+            pointRouter = new DijkstraPathFinder(roadGraph);
         }
+        Route route = pointRouter.findRoute(start, target);
+        if (route == null) {
+            showError("No path found from this road!");
+            return;
+        }
+
+        ArrayList<String> path = route.toCityNames(roadGraph);
+        searchInfo = "(Dijkstra from " + roadLabel(start) + ", " + route.settledNodes() + " cities settled)";
+        System.out.println("Path: " + roadLabel(start) + " → " + String.join(" → ", path));
+        System.out.println("Total distance: " + String.format("%.2f", route.distance()) + " " + roadGraph.distanceUnit());
+
+        redrawMapOnly(roadGraph);
+        int first = route.source();
+        StdDraw.setPenColor(StdDraw.GREEN);
+        StdDraw.setPenRadius(0.005);
+        StdDraw.line(start.x(), start.y() + 130, xCoordinates[first], yCoordinates[first] + 130);
+        StdDraw.filledCircle(start.x(), start.y() + 130, 5);
+        drawShortestPath(path, xCoordinates, yCoordinates);
+
+        drawInputUI(path, route.distance());
+        StdDraw.show();
+    }
+
+    // Text shown in the departure box for a point on a road
+    private static String roadLabel(RoadPosition point) {
+        return "near " + roadGraph.cityName(roadGraph.roadFrom(point.road())) + " - "
+                + roadGraph.cityName(roadGraph.roadTo(point.road()));
+    }
+
+    // Show an error below the input boxes
+    private static void showError(String message) {
+        errorMessage = message;
+        drawInputUI(null, 0.0);
+        StdDraw.show();
+    }
+
+    /**
+     * Render map with cities (city data must already be loaded into the static arrays)
+     */
+    public static void renderMapWithCities() {
+        // Render the map with space below for input UI
+        // setting canvas size and adding map.png according to width and height of canvas
+        StdDraw.setCanvasSize(2377 / 2, (1055 + 130) / 2);
+        StdDraw.setXscale(0, 2377);
+        StdDraw.setYscale(0, 1055 + 130);
+        StdDraw.picture(2380 / 2.0, (1055 + 130) / 2.0 + 65, "map.png", 2377, 1055);
 
         // Draw cities (shifted up by 130 pixels for input area)
         StdDraw.setPenColor(StdDraw.RED);
@@ -295,51 +687,36 @@ public final class berker_kelesoglu {
         }
     }
 
-    public static void drawRoads(String[] cityNames, double[] xCoordinates, double[] yCoordinates) {
+    public static void drawRoads(RoadGraph graph) {
         // Draw roads between connected cities
-         try {
-            File file = new File("src/datas/cities-roads.txt");         // get roads
-            Scanner scanner = new Scanner(file);
-
-            StdDraw.setPenColor(StdDraw.RED);
-            StdDraw.setPenRadius(0.002);
-
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                String[] cities = line.split(" - ");                // divide by text to find start and end point of road
-
-                if (cities.length == 2) {
-                    String city1Name = cities[0];                           // start point
-                    String city2Name = cities[1];                           // end point
-
-                    // Get coordinates for both cities
-                    int index1 = getCityIndex(city1Name, cityNames);
-                    int index2 = getCityIndex(city2Name, cityNames);
-
-                    // Draw line if both cities exist (shifted up by 130 pixels)
-                    if (index1 != -1 && index2 != -1) {
-                        StdDraw.line(xCoordinates[index1], yCoordinates[index1] + 130,
-                                     xCoordinates[index2], yCoordinates[index2] + 130); // draw lines between cities we add 130 because we gave some gap for input
-                    }
-                }
-            }
-            scanner.close();
-        } catch (FileNotFoundException e) {
-            System.err.println("Error: city-roads.txt file not found!");
-            e.printStackTrace();
-        }
-
+        drawRoadLines(graph);
         StdDraw.show();
     }
 
+    /**
+     * Draw the roads inside the map picture as red lines (shifted up by 130 pixels for input area).
+     * The road index returns only the roads in the window, so a bigger network or a zoomed
+     * viewport does not draw what is off screen
+     * @param graph Loaded road graph
+     */
+    private static void drawRoadLines(RoadGraph graph) {
+        StdDraw.setPenColor(StdDraw.RED);
+        StdDraw.setPenRadius(0.002);
+
+        roadTree.window(0, 0, 2377, 1055, r -> {
+            int index1 = graph.roadFrom(r);                                 // start point
+            int index2 = graph.roadTo(r);                                   // end point
+            StdDraw.line(graph.x(index1), graph.y(index1) + 130,
+                         graph.x(index2), graph.y(index2) + 130); // draw lines between cities we add 130 because we gave some gap for input
+        });
+    }
+
     /**
      * Redraw the entire map (background, cities, and roads) without reinitializing canvas
      * This is used to clear any previous paths before drawing a new one
-     * @param cityNames Array of city names
-     * @param xCoordinates Array of x coordinates
-     * @param yCoordinates Array of y coordinates
+     * @param graph Loaded road graph
      */
-    public static void redrawMapOnly(String[] cityNames, double[] xCoordinates, double[] yCoordinates) {
+    public static void redrawMapOnly(RoadGraph graph) {
         // Redraw the background map image
         StdDraw.picture(2380 / 2.0, (1055 + 130) / 2.0 + 65, "map.png", 2377, 1055);
 
@@ -347,9 +724,9 @@ public final class berker_kelesoglu {
         StdDraw.setPenColor(StdDraw.RED);
         StdDraw.setPenRadius(0.005);
 
-        for (int i = 0; i < cityNames.length; i++) {
-            double x = xCoordinates[i];
-            double y = yCoordinates[i] + 130; // Shift up for input area
+        for (int i = 0; i < graph.cityCount(); i++) {
+            double x = graph.x(i);
+            double y = graph.y(i) + 130; // Shift up for input area
 
             // Draw city point
             StdDraw.filledCircle(x, y, 5);
@@ -357,39 +734,12 @@ public final class berker_kelesoglu {
             // Draw city name
             StdDraw.setPenColor(StdDraw.BLACK);
             StdDraw.setFont(new Font("Arial", Font.PLAIN, 8));
-            StdDraw.text(x, y - 15, cityNames[i]);
+            StdDraw.text(x, y - 15, graph.cityName(i));
             StdDraw.setPenColor(StdDraw.RED);
         }
 
         // Redraw all roads
-        try {
-            File file = new File("src/datas/cities-roads.txt");
-            Scanner scanner = new Scanner(file);
-
-            StdDraw.setPenColor(StdDraw.RED);
-            StdDraw.setPenRadius(0.002);
-
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                String[] cities = line.split(" - ");
-
-                if (cities.length == 2) {
-                    String city1Name = cities[0];
-                    String city2Name = cities[1];
-
-                    int index1 = getCityIndex(city1Name, cityNames);
-                    int index2 = getCityIndex(city2Name, cityNames);
-
-                    if (index1 != -1 && index2 != -1) {
-                        StdDraw.line(xCoordinates[index1], yCoordinates[index1] + 130,
-                                     xCoordinates[index2], yCoordinates[index2] + 130);
-                    }
-                }
-            }
-            scanner.close();
-        } catch (FileNotFoundException e) {
-            System.err.println("Error: city-roads.txt file not found!");
-        }
+        drawRoadLines(graph);
     }
 
 
@@ -589,6 +939,7 @@ public final class berker_kelesoglu {
         }
 
         double totalDistance = 0.0;
+        CityIndex index = new CityIndex(cityNames); // one O(V) build instead of a scan per city
 
         // Sum distances between each consecutive city pair
         for (int i = 0; i < path.size() - 1; i++) {
@@ -596,8 +947,8 @@ public final class berker_kelesoglu {
             String city2 = path.get(i + 1);
 
             // Get indices for both cities
-            int index1 = getCityIndex(city1, cityNames);
-            int index2 = getCityIndex(city2, cityNames);
+            int index1 = index.indexOf(city1);
+            int index2 = index.indexOf(city2);
 
             if (index1 != -1 && index2 != -1) {
                 double distance = graph[index1][index2];
@@ -616,13 +967,11 @@ public final class berker_kelesoglu {
      * 1. Immediate green path drawing (all at once)
      * 2. Moving dot that travels along the path
      * @param path List of cities in the shortest path
-     * @param cityNames Array of city names
      * @param xCoordinates Array of x coordinates
      * @param yCoordinates Array of y coordinates
      */
     public static void drawShortestPath(
             ArrayList<String> path,
-            String[] cityNames,
             double[] xCoordinates,
             double[] yCoordinates) {
 
@@ -631,15 +980,42 @@ public final class berker_kelesoglu {
         }
 
         // Phase 1: Draw entire green path immediately (no animation)
-        StdDraw.setPenColor(StdDraw.GREEN);
+        drawShortestPath(path, xCoordinates, yCoordinates, StdDraw.GREEN);
+
+        StdDraw.show();
+        StdDraw.pause(300);
+
+        // Phase 2: Moving dot animation along the completed path
+        animateMovingDot(path, xCoordinates, yCoordinates);
+    }
+
+    /**
+     * Draw a path on the map in the given color, without animation
+     * (used for the alternative routes, which share the drawing code of the shortest path)
+     * @param path List of cities in the path (names are looked up in the loaded road graph)
+     * @param xCoordinates Array of x coordinates
+     * @param yCoordinates Array of y coordinates
+     * @param color Line color
+     */
+    public static void drawShortestPath(
+            ArrayList<String> path,
+            double[] xCoordinates,
+            double[] yCoordinates,
+            java.awt.Color color) {
+
+        if (path == null || path.size() < 2) {
+            return;
+        }
+
+        StdDraw.setPenColor(color);
         StdDraw.setPenRadius(0.005);
 
         for (int i = 0; i < path.size() - 1; i++) {
             String city1 = path.get(i);
             String city2 = path.get(i + 1);
 
-            int index1 = getCityIndex(city1, cityNames);
-            int index2 = getCityIndex(city2, cityNames);
+            int index1 = roadGraph.indexOf(city1);
+            int index2 = roadGraph.indexOf(city2);
 
             if (index1 != -1 && index2 != -1) {
                 // Draw path segment immediately
@@ -647,12 +1023,6 @@ public final class berker_kelesoglu {
                            xCoordinates[index2], yCoordinates[index2] + 130);
             }
         }
-
-        StdDraw.show();
-        StdDraw.pause(300);
-
-        // Phase 2: Moving dot animation along the completed path
-        animateMovingDot(path, cityNames, xCoordinates, yCoordinates);
     }
 
     /**
@@ -689,12 +1059,11 @@ public final class berker_kelesoglu {
 
     /**
      * Animate a moving dot along the path
-     * @param path List of cities in the path
-     * @param cityNames Array of city names
+     * @param path List of cities in the path (names are looked up in the loaded road graph)
      * @param xCoordinates Array of x coordinates
      * @param yCoordinates Array of y coordinates
      */
-    private static void animateMovingDot(ArrayList<String> path, String[] cityNames, double[] xCoordinates, double[] yCoordinates) {
+    private static void animateMovingDot(ArrayList<String> path, double[] xCoordinates, double[] yCoordinates) {
         if (path == null || path.size() < 2) {
             return;
         }
@@ -705,8 +1074,8 @@ public final class berker_kelesoglu {
             String city1 = path.get(i);
             String city2 = path.get(i + 1);
 
-            int index1 = getCityIndex(city1, cityNames);
-            int index2 = getCityIndex(city2, cityNames);
+            int index1 = roadGraph.indexOf(city1);
+            int index2 = roadGraph.indexOf(city2);
 
             if (index1 != -1 && index2 != -1) {
                 double x1 = xCoordinates[index1];
@@ -742,7 +1111,7 @@ public final class berker_kelesoglu {
 
         // Final highlight at destination
         String endCity = path.get(path.size() - 1);
-        int endIndex = getCityIndex(endCity, cityNames);
+        int endIndex = roadGraph.indexOf(endCity);
         if (endIndex != -1) {
             highlightCity(xCoordinates[endIndex], yCoordinates[endIndex] + 130, StdDraw.BOOK_LIGHT_BLUE);
             StdDraw.show();
@@ -0,0 +1,16 @@
+// Engines that return several different routes between the same two cities
+// (best route first), for dispatchers choosing between alternatives.
+
+package navigation;
+
+import java.util.List;
+
+public interface AlternativeRouteFinder {
+    /**
+     * @param source Index of the departure city
+     * @param target Index of the destination city
+     * @param count Maximum number of routes to return
+     * @return Routes ordered by distance, empty if the destination cannot be reached
+     */
+    List<Route> findRoutes(int source, int target, int count);
+}
@@ -0,0 +1,115 @@
+// Bidirectional search: one search grows from the departure, one from the destination,
+// and they stop once the two frontiers cannot improve the best meeting point any more.
+// Roads are stored in both directions, so the backward search walks the same CSR edges.
+// With a heuristic it becomes bidirectional A* using the average potential
+// p(v) = (h(v, target) - h(v, source)) / 2 forward and -p(v) backward, which keeps the
+// reduced edge costs non-negative for both sides.
+// Not thread-safe: each instance owns two reusable workspaces.
+
+package navigation;
+
+public final class BidirectionalPathFinder implements PathFinder {
+    private final RoadGraph graph;
+    private final Heuristic heuristic; // null for plain bidirectional Dijkstra
+    private final SearchWorkspace forward;
+    private final SearchWorkspace backward;
+
+    public BidirectionalPathFinder(RoadGraph graph, Heuristic heuristic) {
+        this.graph = graph;
+        this.heuristic = heuristic;
+        this.forward = new SearchWorkspace(graph.cityCount());
+        this.backward = new SearchWorkspace(graph.cityCount());
+    }
+
+    /**
+     * Bidirectional Dijkstra (no heuristic)
+     */
+    public BidirectionalPathFinder(RoadGraph graph) {
+        this(graph, null);
+    }
+
+    @Override
+    public Route findRoute(int source, int target) {
+        forward.reset();
+        backward.reset();
+
+        forward.relax(source, 0.0, -1, potential(source, source, target));
+        backward.relax(target, 0.0, -1, -potential(target, source, target));
+
+        double bestDistance = source == target ? 0.0 : Double.POSITIVE_INFINITY;
+        int meetingCity = source == target ? source : -1;
+        int settledNodes = 0;
+
+        while (!forward.heap.isEmpty() && !backward.heap.isEmpty()) {
+            // Neither side can find anything shorter than the best meeting point
+            if (forward.heap.minKey() + backward.heap.minKey() >= bestDistance) break;
+
+            // Expand the side whose next city is closer
+            boolean forwardStep = forward.heap.minKey() <= backward.heap.minKey();
+            SearchWorkspace ws = forwardStep ? forward : backward;
+            SearchWorkspace other = forwardStep ? backward : forward;
+            double sign = forwardStep ? 1.0 : -1.0;
+
+            int current = ws.heap.pollMin();
+            if (!ws.settled[current]) {
+                ws.settled[current] = true;
+                settledNodes++;
+            }
+            double currentDistance = ws.distances[current];
+
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                int neighbor = graph.edgeTarget(e);
+                double newDistance = currentDistance + graph.edgeWeight(e);
+
+                if (newDistance < ws.distances[neighbor]) {
+                    ws.relax(neighbor, newDistance, current, newDistance + sign * potential(neighbor, source, target));
+                }
+
+                // Did the two searches meet on this road?
+                double total = newDistance + other.distances[neighbor];
+                if (total < bestDistance) {
+                    bestDistance = total;
+                    meetingCity = neighbor;
+                }
+            }
+        }
+
+        if (meetingCity == -1) {
+            return null;
+        }
+        return buildRoute(meetingCity, bestDistance, settledNodes);
+    }
+
+    // Forward potential; the backward search uses its negation
+    private double potential(int city, int source, int target) {
+        if (heuristic == null) {
+            return 0.0;
+        }
+        return 0.5 * (heuristic.estimate(city, target) - heuristic.estimate(city, source));
+    }
+
+    // Forward tree from the departure to the meeting city, then backward tree to the destination
+    private Route buildRoute(int meetingCity, double distance, int settledNodes) {
+        int forwardLength = 0;
+        for (int city = meetingCity; city != -1; city = forward.previousCity[city]) {
+            forwardLength++;
+        }
+        int backwardLength = 0;
+        for (int city = backward.previousCity[meetingCity]; city != -1; city = backward.previousCity[city]) {
+            backwardLength++;
+        }
+
+        int[] cities = new int[forwardLength + backwardLength];
+        int city = meetingCity;
+        for (int i = forwardLength - 1; i >= 0; i--) {
+            cities[i] = city;
+            city = forward.previousCity[city];
+        }
+        city = backward.previousCity[meetingCity];
+        for (int i = forwardLength; i < cities.length; i++) {
+            cities[i] = city;
+            city = backward.previousCity[city];
+        }
+        return new Route(cities, distance, settledNodes);
+    }
+}
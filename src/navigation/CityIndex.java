@@ -0,0 +1,159 @@
+// Prebuilt open-addressing map from city name to city index.
+// Lookups fold case and Turkish letters on the fly (İ/ı/I -> i, Ş -> s, Ğ -> g, Ç -> c,
+// Ö -> o, Ü -> u) so "İSTANBUL", "istanbul" and "Şanlıurfa" all find the ASCII names of
+// city-coordinates.txt, and a license-plate code ("06" or "6") finds its province unless
+// a city is named exactly that.
+// A lookup hashes and compares the characters in place: constant time, no allocation.
+
+package navigation;
+
+import java.util.Arrays;
+
+public final class CityIndex {
+    // Provinces in license-plate order (plate code = position + 1), spelled as in city-coordinates.txt
+    private static final String[] PLATE_NAMES = {
+            "Adana", "Adiyaman", "Afyon", "Agri", "Amasya", "Ankara", "Antalya", "Artvin", "Aydin",
+            "Balikesir", "Bilecik", "Bingol", "Bitlis", "Bolu", "Burdur", "Bursa", "Canakkale", "Cankiri",
+            "Corum", "Denizli", "Diyarbakir", "Edirne", "Elazig", "Erzincan", "Erzurum", "Eskisehir",
+            "Gaziantep", "Giresun", "Gumushane", "Hakkari", "Hatay", "Isparta", "Mersin", "Istanbul",
+            "Izmir", "Kars", "Kastamonu", "Kayseri", "Kirklareli", "Kirsehir", "Kocaeli", "Konya",
+            "Kutahya", "Malatya", "Manisa", "Kahramanmaras", "Mardin", "Mugla", "Mus", "Nevsehir",
+            "Nigde", "Ordu", "Rize", "Sakarya", "Samsun", "Siirt", "Sinop", "Sivas", "Tekirdag", "Tokat",
+            "Trabzon", "Tunceli", "Sanliurfa", "Usak", "Van", "Yozgat", "Zonguldak", "Aksaray", "Bayburt",
+            "Karaman", "Kirikkale", "Batman", "Sirnak", "Bartin", "Ardahan", "Igdir", "Yalova", "Karabuk",
+            "Kilis", "Osmaniye", "Duzce"
+    };
+
+    // Official names that differ from the short names used in the data file
+    private static final String[][] ALIASES = {
+            {"Afyonkarahisar", "Afyon"},
+            {"Icel", "Mersin"}
+    };
+
+    // Folded form of every character up to Latin Extended-A (covers all Turkish letters)
+    private static final char[] FOLD_TABLE = new char[0x180];
+
+    static {
+        for (char c = 0; c < FOLD_TABLE.length; c++) {
+            FOLD_TABLE[c] = (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+        }
+        String[] groups = {"iİIıÎî", "sŞş", "gĞğ", "cÇç", "oÖö", "uÜüÛû", "aÂâ"};
+        for (String group : groups) {
+            for (int i = 1; i < group.length(); i++) {
+                FOLD_TABLE[group.charAt(i)] = group.charAt(0);
+            }
+        }
+    }
+
+    private final char[][] slotKeys;   // normalized name per slot, null if empty
+    private final int[] slotHashes;
+    private final int[] slotCities;
+    private final int mask;
+    private final int[] plateCities;   // plateCities[code] = city index, -1 if not loaded
+
+    /**
+     * @param cityNames City names in index order
+     */
+    public CityIndex(String[] cityNames) {
+        int capacity = Integer.highestOneBit(Math.max(4, (cityNames.length + ALIASES.length) * 2 - 1)) << 1;
+        slotKeys = new char[capacity][];
+        slotHashes = new int[capacity];
+        slotCities = new int[capacity];
+        mask = capacity - 1;
+
+        for (int city = 0; city < cityNames.length; city++) {
+            put(cityNames[city], city);
+        }
+        for (String[] alias : ALIASES) {
+            int city = indexOf(alias[1]);
+            if (city != -1) put(alias[0], city);
+        }
+
+        plateCities = new int[PLATE_NAMES.length + 1];
+        Arrays.fill(plateCities, -1);
+        for (int code = 1; code <= PLATE_NAMES.length; code++) {
+            plateCities[code] = indexOf(PLATE_NAMES[code - 1]);
+        }
+    }
+
+    /**
+     * Find a city by name (any case, with or without Turkish letters), or else by plate code
+     * @param name Typed name, surrounding spaces are ignored
+     * @return Index of the city, or -1 if not found
+     */
+    public int indexOf(String name) {
+        if (name == null) return -1;
+
+        int start = 0;
+        int end = name.length();
+        while (start < end && name.charAt(start) == ' ') start++;
+        while (end > start && name.charAt(end - 1) == ' ') end--;
+        if (start == end) return -1;
+
+        int hash = hash(name, start, end);
+        for (int slot = hash & mask; slotKeys[slot] != null; slot = (slot + 1) & mask) {
+            if (slotHashes[slot] == hash && matches(slotKeys[slot], name, start, end)) {
+                return slotCities[slot];
+            }
+        }
+
+        // No such name: try a license-plate code (one or two digits)
+        if (plateCities != null && end - start <= 2 && isDigit(name.charAt(start)) && isDigit(name.charAt(end - 1))) {
+            int code = 0;
+            for (int i = start; i < end; i++) {
+                code = code * 10 + (name.charAt(i) - '0');
+            }
+            return code >= 1 && code < plateCities.length ? plateCities[code] : -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Map a character to its lower-case ASCII form (Turkish letters included)
+     */
+    public static char fold(char c) {
+        return c < FOLD_TABLE.length ? FOLD_TABLE[c] : c;
+    }
+
+    // First name wins if two names fold to the same key
+    private void put(String name, int city) {
+        if (indexOf(name) != -1) return;
+
+        int length = name.length();
+        char[] key = new char[length];
+        for (int i = 0; i < length; i++) {
+            key[i] = fold(name.charAt(i));
+        }
+
+        int hash = hash(name, 0, length);
+        int slot = hash & mask;
+        while (slotKeys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        slotKeys[slot] = key;
+        slotHashes[slot] = hash;
+        slotCities[slot] = city;
+    }
+
+    // FNV-1a over the folded characters, then mixed so the low bits spread well
+    private static int hash(String name, int start, int end) {
+        int hash = 0x811C9DC5;
+        for (int i = start; i < end; i++) {
+            hash ^= fold(name.charAt(i));
+            hash *= 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(char[] key, String name, int start, int end) {
+        if (key.length != end - start) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != fold(name.charAt(start + i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
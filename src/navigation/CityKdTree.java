@@ -0,0 +1,116 @@
+// 2-d tree over city positions for nearest-city lookups (click-to-select on the map).
+// Built once by median splits, alternating x and y, and stored implicitly in one int
+// array: the node of a range [low, high) is its middle element, its children are the two
+// halves. A query visits O(log V) nodes on typical data instead of scanning every city.
+
+package navigation;
+
+public final class CityKdTree {
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] nodes; // city indices in tree order
+
+    /**
+     * @param xs X coordinate of every city
+     * @param ys Y coordinate of every city (same length as xs)
+     */
+    public CityKdTree(double[] xs, double[] ys) {
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.nodes = new int[xs.length];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = i;
+        }
+        build(0, nodes.length, 0);
+    }
+
+    /**
+     * Index over the pixel positions of the graph's cities
+     */
+    public static CityKdTree build(RoadGraph graph) {
+        return new CityKdTree(graph.xCoordinates(), graph.yCoordinates());
+    }
+
+    /**
+     * Closest city to a point
+     * @param x Query x in the same coordinates as the tree
+     * @param y Query y
+     * @param maxDistance Ignore cities farther away than this
+     * @return City index, or -1 if no city lies within maxDistance
+     */
+    public int nearest(double x, double y, double maxDistance) {
+        double[] best = {maxDistance * maxDistance};
+        int[] bestCity = {-1};
+        search(0, nodes.length, 0, x, y, best, bestCity);
+        return bestCity[0];
+    }
+
+    public int nearest(double x, double y) {
+        return nearest(x, y, Double.POSITIVE_INFINITY);
+    }
+
+    // Put the median (by the axis of this depth) in the middle and split both halves
+    private void build(int low, int high, int depth) {
+        if (high - low <= 1) return;
+        int middle = (low + high) >>> 1;
+        select(low, high - 1, middle, depth & 1);
+        build(low, middle, depth + 1);
+        build(middle + 1, high, depth + 1);
+    }
+
+    // Quickselect: afterwards nodes[k] has rank k in [left, right] by the given axis
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coordinate(nodes[(left + right) >>> 1], axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(nodes[i], axis) < pivot) i++;
+                while (coordinate(nodes[j], axis) > pivot) j--;
+                if (i <= j) {
+                    int swap = nodes[i];
+                    nodes[i] = nodes[j];
+                    nodes[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void search(int low, int high, int depth, double x, double y, double[] best, int[] bestCity) {
+        if (low >= high) return;
+        int middle = (low + high) >>> 1;
+        int city = nodes[middle];
+
+        double dx = xs[city] - x;
+        double dy = ys[city] - y;
+        double squared = dx * dx + dy * dy;
+        if (squared < best[0] || (squared == best[0] && (bestCity[0] == -1 || city < bestCity[0]))) {
+            best[0] = squared;
+            bestCity[0] = city;
+        }
+
+        // Visit the side of the query point first; the other side only if the splitting
+        // line is closer than the best city so far
+        double offset = (depth & 1) == 0 ? x - xs[city] : y - ys[city];
+        if (offset < 0) {
+            search(low, middle, depth + 1, x, y, best, bestCity);
+            if (offset * offset <= best[0]) search(middle + 1, high, depth + 1, x, y, best, bestCity);
+        } else {
+            search(middle + 1, high, depth + 1, x, y, best, bestCity);
+            if (offset * offset <= best[0]) search(low, middle, depth + 1, x, y, best, bestCity);
+        }
+    }
+
+    private double coordinate(int city, int axis) {
+        return axis == 0 ? xs[city] : ys[city];
+    }
+}
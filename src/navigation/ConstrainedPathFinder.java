@@ -0,0 +1,137 @@
+// Shortest routes under query-time constraints (see RouteConstraints).
+// Forbidden cities and roads are skipped inside the relaxation loop, so nothing about the
+// graph is copied or rebuilt per query. A hop limit turns the search into a Dijkstra over
+// (city, roads used so far) states: a state is dropped when its city was already settled
+// with no more roads and no longer distance, so each city is settled only a few times.
+// Memory for hop-limited queries grows with cities x (hop limit + 1).
+// Not thread-safe: each instance owns its reusable workspaces.
+
+package navigation;
+
+import java.util.Arrays;
+
+public final class ConstrainedPathFinder implements PathFinder {
+    private final RoadGraph graph;
+    private final int[] fewestHops;     // fewest roads among the settled states of a city
+    private final int[] hopCities;      // cities whose fewestHops entry is set
+    private int hopCityCount;
+    private SearchWorkspace workspace;  // sized for cityCount * layers states
+    private int layers;
+    private RouteConstraints constraints = new RouteConstraints();
+
+    public ConstrainedPathFinder(RoadGraph graph) {
+        this.graph = graph;
+        this.fewestHops = new int[graph.cityCount()];
+        this.hopCities = new int[graph.cityCount()];
+        Arrays.fill(fewestHops, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constraints used by findRoute(source, target)
+     */
+    public void setConstraints(RouteConstraints constraints) {
+        this.constraints = constraints;
+    }
+
+    public RouteConstraints constraints() {
+        return constraints;
+    }
+
+    @Override
+    public Route findRoute(int source, int target) {
+        return findRoute(source, target, constraints);
+    }
+
+    /**
+     * Shortest route that respects the constraints
+     * @return Route, or null if no allowed route exists
+     */
+    public Route findRoute(int source, int target, RouteConstraints constraints) {
+        if (constraints.isCityForbidden(source) || constraints.isCityForbidden(target)) {
+            return null;
+        }
+
+        // A shortest route never repeats a city, so a limit of cityCount - 1 roads or more
+        // changes nothing and the search can run on plain cities
+        int maxHops = constraints.maxHops();
+        boolean hopLimited = maxHops < graph.cityCount() - 1;
+        SearchWorkspace ws = workspace(hopLimited ? maxHops + 1 : 1);
+        IndexedDaryHeap heap = ws.heap;
+        double[] distances = ws.distances;
+
+        ws.reset();
+        for (int i = 0; i < hopCityCount; i++) {
+            fewestHops[hopCities[i]] = Integer.MAX_VALUE;
+        }
+        hopCityCount = 0;
+
+        ws.relax(source * layers, 0.0, -1, 0.0);
+        int settledNodes = 0;
+        int targetState = -1;
+
+        while (!heap.isEmpty()) {
+            int state = heap.pollMin();
+            ws.settled[state] = true;
+            int city = state / layers;
+            int hops = state % layers;
+
+            // An earlier (shorter) state of this city used no more roads: nothing new here
+            if (fewestHops[city] <= hops) continue;
+            if (fewestHops[city] == Integer.MAX_VALUE) hopCities[hopCityCount++] = city;
+            fewestHops[city] = hops;
+            settledNodes++;
+
+            // Reached destination, exit early
+            if (city == target) {
+                targetState = state;
+                break;
+            }
+            if (hopLimited && hops == maxHops) continue;
+
+            int nextHops = hopLimited ? hops + 1 : 0;
+            double currentDistance = distances[state];
+            for (int e = graph.edgeStart(city); e < graph.edgeEnd(city); e++) {
+                int neighbor = graph.edgeTarget(e);
+                if (fewestHops[neighbor] <= nextHops
+                        || constraints.isCityForbidden(neighbor)
+                        || constraints.isRoadForbidden(graph.edgeRoad(e))) continue;
+
+                int next = neighbor * layers + nextHops;
+                double newDistance = currentDistance + graph.edgeWeight(e);
+                if (!ws.settled[next] && newDistance < distances[next]) {
+                    ws.relax(next, newDistance, state, newDistance);
+                }
+            }
+        }
+
+        if (targetState == -1) {
+            return null;
+        }
+
+        // previousCity holds previous states here; divide by layers to get cities
+        int length = 0;
+        for (int state = targetState; state != -1; state = ws.previousCity[state]) {
+            length++;
+        }
+        int[] cities = new int[length];
+        int state = targetState;
+        for (int i = length - 1; i >= 0; i--) {
+            cities[i] = state / layers;
+            state = ws.previousCity[state];
+        }
+        return new Route(cities, distances[targetState], settledNodes);
+    }
+
+    // Reuse the workspace while the number of hop layers stays the same
+    private SearchWorkspace workspace(int wantedLayers) {
+        if (workspace == null || layers != wantedLayers) {
+            long states = (long) graph.cityCount() * wantedLayers;
+            if (states > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Hop limit too large for this graph: " + (wantedLayers - 1));
+            }
+            workspace = new SearchWorkspace((int) states);
+            layers = wantedLayers;
+        }
+        return workspace;
+    }
+}
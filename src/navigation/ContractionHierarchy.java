@@ -0,0 +1,511 @@
+// Contraction Hierarchies (CH) preprocessing.
+// Cities are contracted one by one in order of importance; when a city is removed, a
+// shortcut road is added between two of its neighbours unless a witness path that avoids
+// the city is at least as short. The result is an "upward" graph: for every city the
+// roads (original or shortcut) leading to more important cities. Queries only search
+// upwards from both ends (see ContractionHierarchyPathFinder).
+// The hierarchy can be saved to a file so it is not rebuilt on every launch.
+// Shortcuts bake in road lengths, so a road change marks the hierarchy stale. It stops
+// being stale when every changed road is back at the weight it was built with (a closed
+// road reopened, a detour undone); otherwise the next query rebuilds it from the current
+// graph. Queries read one Levels snapshot, so a rebuild never swaps arrays under them.
+
+package navigation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class ContractionHierarchy implements RoadChangeListener {
+    private static final int FILE_MAGIC = 0x43484731;    // "CHG1"
+    private static final int FILE_VERSION = 1;
+    // Witness searches give up after this many cities; estimating a priority can be
+    // rougher than the real contraction, where a missed witness costs a shortcut
+    private static final int PRIORITY_SETTLE_LIMIT = 30;
+    private static final int CONTRACT_SETTLE_LIMIT = 300;
+
+    private final RoadGraph graph;
+    private volatile Levels levels;
+    // Roads whose weight differs from the one the current levels were built with,
+    // mapped to that build-time weight; the hierarchy is stale while this is not empty
+    private final Map<Integer, Double> changedRoads = new HashMap<>();
+    private volatile boolean stale;
+
+    private ContractionHierarchy(RoadGraph graph, Levels levels) {
+        this.graph = graph;
+        this.levels = levels;
+    }
+
+    /**
+     * Contract every city of the graph and build the upward search graph
+     * @param graph Road graph to preprocess
+     * @return Finished hierarchy
+     */
+    public static ContractionHierarchy build(RoadGraph graph) {
+        ContractionHierarchy hierarchy = new ContractionHierarchy(graph, new Preprocessor(graph).run());
+        graph.addRoadListener(hierarchy);
+        return hierarchy;
+    }
+
+    /**
+     * Load the hierarchy from a file, or build and save it if the file is missing or was
+     * made for a different road graph
+     * @param graph Road graph the hierarchy must belong to
+     * @param path File used to keep the preprocessing result between launches
+     * @return Hierarchy matching the graph
+     */
+    public static ContractionHierarchy loadOrBuild(RoadGraph graph, String path) {
+        File file = new File(path);
+        if (file.exists()) {
+            try {
+                ContractionHierarchy hierarchy = load(graph, path);
+                if (hierarchy != null) {
+                    return hierarchy;
+                }
+            } catch (IOException e) {
+                System.err.println("Warning: could not read " + path + ", rebuilding: " + e.getMessage());
+            }
+        }
+
+        ContractionHierarchy hierarchy = build(graph);
+        try {
+            hierarchy.save(path);
+        } catch (IOException e) {
+            System.err.println("Warning: could not save " + path + ": " + e.getMessage());
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Read a hierarchy written by save()
+     * @return The hierarchy, or null if the file belongs to a different graph or version
+     */
+    public static ContractionHierarchy load(RoadGraph graph, String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                return null;
+            }
+            long fingerprint = in.readLong();
+            int numCities = in.readInt();
+            int numEdges = in.readInt();
+            if (fingerprint != graph.fingerprint() || numCities != graph.cityCount()) {
+                return null; // road data changed since the file was written
+            }
+
+            int[] rank = new int[numCities];
+            int[] upOffsets = new int[numCities + 1];
+            int[] upTargets = new int[numEdges];
+            double[] upWeights = new double[numEdges];
+            int[] upMiddles = new int[numEdges];
+
+            for (int i = 0; i < numCities; i++) rank[i] = in.readInt();
+            for (int i = 0; i <= numCities; i++) upOffsets[i] = in.readInt();
+            for (int e = 0; e < numEdges; e++) upTargets[e] = in.readInt();
+            for (int e = 0; e < numEdges; e++) upWeights[e] = in.readDouble();
+            for (int e = 0; e < numEdges; e++) upMiddles[e] = in.readInt();
+
+            ContractionHierarchy hierarchy = new ContractionHierarchy(graph,
+                    new Levels(fingerprint, rank, upOffsets, upTargets, upWeights, upMiddles));
+            graph.addRoadListener(hierarchy);
+            return hierarchy;
+        }
+    }
+
+    /**
+     * Write the hierarchy to a file
+     * @param path Output file
+     */
+    public void save(String path) throws IOException {
+        Levels levels = this.levels;
+        int[] rank = levels.rank;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeLong(levels.graphFingerprint);
+            out.writeInt(rank.length);
+            out.writeInt(levels.upTargets.length);
+
+            for (int r : rank) out.writeInt(r);
+            for (int offset : levels.upOffsets) out.writeInt(offset);
+            for (int target : levels.upTargets) out.writeInt(target);
+            for (double weight : levels.upWeights) out.writeDouble(weight);
+            for (int middle : levels.upMiddles) out.writeInt(middle);
+        }
+    }
+
+    public int cityCount() {
+        return levels.rank.length;
+    }
+
+    public int rank(int city) {
+        return levels.rank[city];
+    }
+
+    /**
+     * Number of upward edges that are shortcuts rather than real roads
+     */
+    public int shortcutCount() {
+        int count = 0;
+        for (int middle : levels.upMiddles) {
+            if (middle != -1) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Track the road against the weight the hierarchy was built with; the hierarchy is
+     * stale while any road differs from it
+     */
+    @Override
+    public synchronized void roadChanged(RoadGraph changedGraph, int road, double oldWeight, double newWeight) {
+        if (changedGraph != graph) return;
+        Double builtWeight = changedRoads.get(road);
+        if (builtWeight == null) {
+            changedRoads.put(road, oldWeight);
+        } else if (builtWeight == newWeight) {
+            changedRoads.remove(road);
+        }
+        stale = !changedRoads.isEmpty();
+    }
+
+    /**
+     * @return true if roads changed since the hierarchy was built and are not back at
+     *         their old weights; the next query rebuilds it
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Current search graph, rebuilt first if the hierarchy is stale
+     */
+    Levels levels() {
+        if (!stale) {
+            return levels;
+        }
+        synchronized (this) {
+            if (stale) {
+                levels = new Preprocessor(graph).run();
+                changedRoads.clear();
+                stale = false;
+            }
+            return levels;
+        }
+    }
+
+    /**
+     * One build of the hierarchy: contraction order and upward graph in CSR form.
+     * Never modified, so a query can keep using it while a rebuild replaces it.
+     */
+    static final class Levels {
+        private final long graphFingerprint;
+        private final int[] rank;           // contraction order, higher = more important
+
+        // Upward graph; middle is the contracted city of a shortcut, -1 for a real road
+        private final int[] upOffsets;
+        private final int[] upTargets;
+        private final double[] upWeights;
+        private final int[] upMiddles;
+
+        private Levels(long graphFingerprint, int[] rank, int[] upOffsets,
+                       int[] upTargets, double[] upWeights, int[] upMiddles) {
+            this.graphFingerprint = graphFingerprint;
+            this.rank = rank;
+            this.upOffsets = upOffsets;
+            this.upTargets = upTargets;
+            this.upWeights = upWeights;
+            this.upMiddles = upMiddles;
+        }
+
+        int upStart(int city) {
+            return upOffsets[city];
+        }
+
+        int upEnd(int city) {
+            return upOffsets[city + 1];
+        }
+
+        int upTarget(int edge) {
+            return upTargets[edge];
+        }
+
+        double upWeight(int edge) {
+            return upWeights[edge];
+        }
+
+        /**
+         * Append the real cities of the upward edge between city1 and city2 to path,
+         * expanding shortcuts recursively (city1 itself is not appended)
+         * @param path Output buffer
+         * @param length Number of cities already in path
+         * @return New length of path
+         */
+        int unpack(int city1, int city2, int[] path, int length, int[] stack) {
+            int top = 0;
+            stack[top++] = city1;
+            stack[top++] = city2;
+
+            while (top > 0) {
+                int to = stack[--top];
+                int from = stack[--top];
+                int middle = upMiddles[findEdge(from, to)];
+
+                if (middle == -1) {
+                    path[length++] = to;
+                } else {
+                    // Push (middle, to) first so (from, middle) is expanded first
+                    stack[top++] = middle;
+                    stack[top++] = to;
+                    stack[top++] = from;
+                    stack[top++] = middle;
+                }
+            }
+            return length;
+        }
+
+        // Upward edges are stored at the less important end
+        private int findEdge(int city1, int city2) {
+            int low = rank[city1] < rank[city2] ? city1 : city2;
+            int high = low == city1 ? city2 : city1;
+            for (int e = upOffsets[low]; e < upOffsets[low + 1]; e++) {
+                if (upTargets[e] == high) {
+                    return e;
+                }
+            }
+            throw new IllegalStateException("Missing hierarchy edge " + city1 + " - " + city2);
+        }
+    }
+
+    /**
+     * Contraction state: a mutable adjacency list per city that grows with shortcuts
+     */
+    private static final class Preprocessor {
+        private final RoadGraph graph;
+        private final int numCities;
+        private final int[][] targets;
+        private final double[][] weights;
+        private final int[][] middles;
+        private final int[] degree;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final SearchWorkspace witness;
+
+        Preprocessor(RoadGraph graph) {
+            this.graph = graph;
+            this.numCities = graph.cityCount();
+            this.targets = new int[numCities][];
+            this.weights = new double[numCities][];
+            this.middles = new int[numCities][];
+            this.degree = new int[numCities];
+            this.contracted = new boolean[numCities];
+            this.contractedNeighbors = new int[numCities];
+            this.witness = new SearchWorkspace(numCities);
+
+            for (int city = 0; city < numCities; city++) {
+                int size = Math.max(4, graph.edgeEnd(city) - graph.edgeStart(city));
+                targets[city] = new int[size];
+                weights[city] = new double[size];
+                middles[city] = new int[size];
+            }
+            for (int city = 0; city < numCities; city++) {
+                for (int e = graph.edgeStart(city); e < graph.edgeEnd(city); e++) {
+                    if (graph.edgeWeight(e) != Double.POSITIVE_INFINITY) { // closed roads are left out
+                        addArc(city, graph.edgeTarget(e), graph.edgeWeight(e), -1);
+                    }
+                }
+            }
+        }
+
+        Levels run() {
+            int[] rank = new int[numCities];
+            int[][] upTargets = new int[numCities][];
+            double[][] upWeights = new double[numCities][];
+            int[][] upMiddles = new int[numCities][];
+
+            IndexedDaryHeap queue = new IndexedDaryHeap(numCities);
+            for (int city = 0; city < numCities; city++) {
+                queue.insertOrDecrease(city, priority(city));
+            }
+
+            int order = 0;
+            while (!queue.isEmpty()) {
+                int city = queue.pollMin();
+
+                // Lazy update: requeue if the city became less attractive than the next one
+                double current = priority(city);
+                if (!queue.isEmpty() && current > queue.minKey()) {
+                    queue.insertOrDecrease(city, current);
+                    continue;
+                }
+
+                // The remaining edges of the city all go to more important cities
+                int live = 0;
+                for (int i = 0; i < degree[city]; i++) {
+                    if (!contracted[targets[city][i]]) live++;
+                }
+                upTargets[city] = new int[live];
+                upWeights[city] = new double[live];
+                upMiddles[city] = new int[live];
+                int k = 0;
+                for (int i = 0; i < degree[city]; i++) {
+                    if (!contracted[targets[city][i]]) {
+                        upTargets[city][k] = targets[city][i];
+                        upWeights[city][k] = weights[city][i];
+                        upMiddles[city][k] = middles[city][i];
+                        k++;
+                    }
+                }
+
+                shortcuts(city, true);
+                contracted[city] = true;
+                rank[city] = order++;
+                // Neighbours lose their arc to the contracted city; their priorities are
+                // refreshed lazily when they reach the top of the queue
+                for (int i = 0; i < live; i++) {
+                    int neighbor = upTargets[city][i];
+                    removeArc(neighbor, city);
+                    contractedNeighbors[neighbor]++;
+                }
+            }
+
+            // Flatten the per-city upward lists into CSR arrays
+            int[] upOffsets = new int[numCities + 1];
+            for (int city = 0; city < numCities; city++) {
+                upOffsets[city + 1] = upOffsets[city] + upTargets[city].length;
+            }
+            int numEdges = upOffsets[numCities];
+            int[] flatTargets = new int[numEdges];
+            double[] flatWeights = new double[numEdges];
+            int[] flatMiddles = new int[numEdges];
+            for (int city = 0; city < numCities; city++) {
+                int length = upTargets[city].length;
+                System.arraycopy(upTargets[city], 0, flatTargets, upOffsets[city], length);
+                System.arraycopy(upWeights[city], 0, flatWeights, upOffsets[city], length);
+                System.arraycopy(upMiddles[city], 0, flatMiddles, upOffsets[city], length);
+            }
+
+            return new Levels(graph.fingerprint(), rank, upOffsets, flatTargets, flatWeights, flatMiddles);
+        }
+
+        // Edge difference plus already contracted neighbours (keeps the hierarchy balanced)
+        private double priority(int city) {
+            int live = 0;
+            for (int i = 0; i < degree[city]; i++) {
+                if (!contracted[targets[city][i]]) live++;
+            }
+            return shortcuts(city, false) - live + contractedNeighbors[city];
+        }
+
+        /**
+         * Count (and optionally add) the shortcuts needed to contract a city
+         */
+        private int shortcuts(int city, boolean add) {
+            int count = 0;
+            int[] cityTargets = targets[city];
+            double[] cityWeights = weights[city];
+
+            for (int i = 0; i < degree[city]; i++) {
+                int from = cityTargets[i];
+                if (contracted[from]) continue;
+
+                // Longest shortcut that could be needed from this neighbour (roads may have
+                // length 0, so whether a partner exists is tracked separately)
+                double maxDistance = 0.0;
+                boolean hasPartner = false;
+                for (int j = i + 1; j < degree[city]; j++) {
+                    if (!contracted[cityTargets[j]]) {
+                        maxDistance = Math.max(maxDistance, cityWeights[i] + cityWeights[j]);
+                        hasPartner = true;
+                    }
+                }
+                if (!hasPartner) continue;
+
+                witnessSearch(from, city, maxDistance, add ? CONTRACT_SETTLE_LIMIT : PRIORITY_SETTLE_LIMIT);
+
+                for (int j = i + 1; j < degree[city]; j++) {
+                    int to = cityTargets[j];
+                    if (contracted[to]) continue;
+
+                    double viaCity = cityWeights[i] + cityWeights[j];
+                    if (witness.distances[to] > viaCity) {
+                        count++;
+                        if (add) {
+                            addArc(from, to, viaCity, city);
+                            addArc(to, from, viaCity, city);
+                        }
+                    }
+                }
+            }
+            return count;
+        }
+
+        // Bounded Dijkstra from source that ignores the city being contracted
+        private void witnessSearch(int source, int avoided, double maxDistance, int settleLimit) {
+            SearchWorkspace ws = witness;
+            ws.reset();
+            ws.relax(source, 0.0, -1, 0.0);
+            int settledNodes = 0;
+
+            while (!ws.heap.isEmpty()) {
+                int current = ws.heap.pollMin();
+                if (ws.distances[current] > maxDistance || ++settledNodes > settleLimit) break;
+                ws.settled[current] = true;
+
+                for (int i = 0; i < degree[current]; i++) {
+                    int neighbor = targets[current][i];
+                    if (neighbor == avoided || contracted[neighbor] || ws.settled[neighbor]) continue;
+
+                    double newDistance = ws.distances[current] + weights[current][i];
+                    if (newDistance < ws.distances[neighbor]) {
+                        ws.relax(neighbor, newDistance, current, newDistance);
+                    }
+                }
+            }
+        }
+
+        // Swap-remove the arc from -> to
+        private void removeArc(int from, int to) {
+            for (int i = 0; i < degree[from]; i++) {
+                if (targets[from][i] == to) {
+                    int last = --degree[from];
+                    targets[from][i] = targets[from][last];
+                    weights[from][i] = weights[from][last];
+                    middles[from][i] = middles[from][last];
+                    return;
+                }
+            }
+        }
+
+        // Add from -> to, or shorten it if the arc already exists
+        private void addArc(int from, int to, double weight, int middle) {
+            for (int i = 0; i < degree[from]; i++) {
+                if (targets[from][i] == to) {
+                    if (weight < weights[from][i]) {
+                        weights[from][i] = weight;
+                        middles[from][i] = middle;
+                    }
+                    return;
+                }
+            }
+
+            if (degree[from] == targets[from].length) {
+                int size = degree[from] * 2;
+                targets[from] = Arrays.copyOf(targets[from], size);
+                weights[from] = Arrays.copyOf(weights[from], size);
+                middles[from] = Arrays.copyOf(middles[from], size);
+            }
+            targets[from][degree[from]] = to;
+            weights[from][degree[from]] = weight;
+            middles[from][degree[from]] = middle;
+            degree[from]++;
+        }
+    }
+}
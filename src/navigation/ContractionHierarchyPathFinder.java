@@ -0,0 +1,98 @@
+// Query side of Contraction Hierarchies: a bidirectional Dijkstra where both searches
+// only follow edges to more important cities. The best meeting city gives the route,
+// and shortcuts are unpacked back into the real city sequence.
+// A stale hierarchy (a road changed since it was built) is rebuilt by the next query.
+// Not thread-safe: each instance owns two reusable workspaces.
+
+package navigation;
+
+public final class ContractionHierarchyPathFinder implements PathFinder {
+    private final ContractionHierarchy hierarchy;
+    private final SearchWorkspace forward;
+    private final SearchWorkspace backward;
+    private final int[] pathBuffer;
+    private final int[] unpackStack;
+
+    public ContractionHierarchyPathFinder(ContractionHierarchy hierarchy) {
+        int numCities = hierarchy.cityCount();
+        this.hierarchy = hierarchy;
+        this.forward = new SearchWorkspace(numCities);
+        this.backward = new SearchWorkspace(numCities);
+        this.pathBuffer = new int[numCities];
+        this.unpackStack = new int[2 * numCities + 4];
+    }
+
+    @Override
+    public Route findRoute(int source, int target) {
+        ContractionHierarchy.Levels levels = hierarchy.levels();
+        forward.reset();
+        backward.reset();
+        forward.relax(source, 0.0, -1, 0.0);
+        backward.relax(target, 0.0, -1, 0.0);
+
+        double bestDistance = Double.POSITIVE_INFINITY;
+        int meetingCity = -1;
+        int settledNodes = 0;
+
+        while (true) {
+            // A side stops once its next city cannot beat the best meeting point
+            boolean forwardOpen = !forward.heap.isEmpty() && forward.heap.minKey() < bestDistance;
+            boolean backwardOpen = !backward.heap.isEmpty() && backward.heap.minKey() < bestDistance;
+            if (!forwardOpen && !backwardOpen) break;
+
+            boolean forwardStep = forwardOpen && (!backwardOpen || forward.heap.minKey() <= backward.heap.minKey());
+            SearchWorkspace ws = forwardStep ? forward : backward;
+            SearchWorkspace other = forwardStep ? backward : forward;
+
+            int current = ws.heap.pollMin();
+            ws.settled[current] = true;
+            settledNodes++;
+            double currentDistance = ws.distances[current];
+
+            double total = currentDistance + other.distances[current];
+            if (total < bestDistance) {
+                bestDistance = total;
+                meetingCity = current;
+            }
+
+            for (int e = levels.upStart(current); e < levels.upEnd(current); e++) {
+                int neighbor = levels.upTarget(e);
+                double newDistance = currentDistance + levels.upWeight(e);
+                if (newDistance < ws.distances[neighbor]) {
+                    ws.relax(neighbor, newDistance, current, newDistance);
+                }
+            }
+        }
+
+        if (meetingCity == -1) {
+            return null;
+        }
+        return buildRoute(levels, source, meetingCity, bestDistance, settledNodes);
+    }
+
+    // Walk the forward tree up to the meeting city, then the backward tree down to the
+    // destination, unpacking every (possibly shortcut) edge on the way
+    private Route buildRoute(ContractionHierarchy.Levels levels, int source, int meetingCity, double distance, int settledNodes) {
+        int upCount = 0;
+        for (int city = meetingCity; city != -1; city = forward.previousCity[city]) {
+            unpackStack[upCount++] = city; // reversed forward chain, meeting city first
+        }
+        int[] upChain = new int[upCount];
+        for (int i = 0; i < upCount; i++) {
+            upChain[i] = unpackStack[upCount - 1 - i];
+        }
+
+        int length = 0;
+        pathBuffer[length++] = source;
+        for (int i = 0; i + 1 < upChain.length; i++) {
+            length = levels.unpack(upChain[i], upChain[i + 1], pathBuffer, length, unpackStack);
+        }
+        for (int city = meetingCity; backward.previousCity[city] != -1; city = backward.previousCity[city]) {
+            length = levels.unpack(city, backward.previousCity[city], pathBuffer, length, unpackStack);
+        }
+
+        int[] cities = new int[length];
+        System.arraycopy(pathBuffer, 0, cities, 0, length);
+        return new Route(cities, distance, settledNodes);
+    }
+}
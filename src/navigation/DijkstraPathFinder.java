@@ -0,0 +1,105 @@
+// Dijkstra's algorithm on the CSR road graph with an indexed d-ary heap.
+// O((V + E) log V) instead of the O(V^2) linear minimum scan; visits cities in the same
+// order (smallest distance, then smallest index), so it returns the same paths.
+// Not thread-safe: each instance owns one reusable workspace.
+
+package navigation;
+
+public final class DijkstraPathFinder implements PathFinder {
+    private final RoadGraph graph;
+    private final SearchWorkspace workspace;
+
+    public DijkstraPathFinder(RoadGraph graph) {
+        this.graph = graph;
+        this.workspace = new SearchWorkspace(graph.cityCount());
+    }
+
+    @Override
+    public Route findRoute(int source, int target) {
+        int settledNodes = search(source, target);
+        if (workspace.distances[target] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return workspace.route(target, settledNodes);
+    }
+
+    @Override
+    public double findDistance(int source, int target) {
+        search(source, target);
+        return workspace.distances[target];
+    }
+
+    /**
+     * Run Dijkstra from source to every reachable city
+     * @return Complete shortest-path tree (arrays are copied out of the workspace)
+     */
+    public ShortestPathTree shortestPathTree(int source) {
+        search(source, -1);
+        return new ShortestPathTree(source, workspace.distances.clone(), workspace.previousCity.clone());
+    }
+
+    /**
+     * Route from a point on a road (see RoadSegmentTree.nearest): the search starts at both
+     * ends of the road, each with the length of road still to drive to it
+     * @return Route from one end of the road to target (its distance includes the partial
+     *         road), or null if the road is closed or target is unreachable
+     */
+    public Route findRoute(RoadPosition start, int target) {
+        int road = start.road();
+        if (graph.isRoadClosed(road)) {
+            return null;
+        }
+
+        workspace.reset();
+        double length = graph.roadLength(road);
+        workspace.relax(graph.roadFrom(road), start.fraction() * length, -1, start.fraction() * length);
+        double toEnd = (1.0 - start.fraction()) * length;
+        if (toEnd < workspace.distances[graph.roadTo(road)]) {
+            workspace.relax(graph.roadTo(road), toEnd, -1, toEnd);
+        }
+
+        int settledNodes = settle(target);
+        if (workspace.distances[target] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return workspace.route(target, settledNodes);
+    }
+
+    // Settle cities from source until target is reached (target -1 = whole graph)
+    private int search(int source, int target) {
+        workspace.reset();
+        workspace.relax(source, 0.0, -1, 0.0);
+        return settle(target);
+    }
+
+    // Run the main loop from whatever the workspace heap was seeded with
+    private int settle(int target) {
+        SearchWorkspace ws = workspace;
+        IndexedDaryHeap heap = ws.heap;
+        double[] distances = ws.distances;
+        boolean[] settled = ws.settled;
+        int settledNodes = 0;
+
+        while (!heap.isEmpty()) {
+            int current = heap.pollMin();
+            settledNodes++;
+
+            // Reached destination, exit early
+            if (current == target) break;
+
+            settled[current] = true;
+            double currentDistance = distances[current];
+
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                int neighbor = graph.edgeTarget(e);
+                if (!settled[neighbor]) {
+                    double newDistance = currentDistance + graph.edgeWeight(e);
+                    if (newDistance < distances[neighbor]) {
+                        ws.relax(neighbor, newDistance, current, newDistance);
+                    }
+                }
+            }
+        }
+        return settledNodes;
+    }
+}
@@ -0,0 +1,172 @@
+// Many-to-many distance matrix for batch planning (for example 30 depots x 81 provinces).
+// One Dijkstra per source that stops as soon as every target is settled, with the
+// sources spread over a fork-join pool. Each worker thread reuses its own workspace.
+// Results are kept row-major in one compact double[]: [source position * targets + target position].
+
+package navigation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class DistanceMatrix {
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] distances;
+    private final long elapsedNanos;
+
+    private DistanceMatrix(int[] sources, int[] targets, double[] distances, long elapsedNanos) {
+        this.sources = sources;
+        this.targets = targets;
+        this.distances = distances;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Compute the matrix on the common fork-join pool
+     */
+    public static DistanceMatrix compute(RoadGraph graph, int[] sources, int[] targets) {
+        return compute(graph, sources, targets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute shortest distances from every source to every target
+     * @param graph Road graph
+     * @param sources Source city indices (matrix rows)
+     * @param targets Target city indices (matrix columns)
+     * @param pool Pool the per-source searches run on
+     * @return Matrix with infinity for unreachable pairs
+     */
+    public static DistanceMatrix compute(RoadGraph graph, int[] sources, int[] targets, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        int[] sourcesCopy = sources.clone();
+        int[] targetsCopy = targets.clone();
+        double[] distances = new double[sourcesCopy.length * targetsCopy.length];
+
+        // Shared, read-only: which cities are targets and how many distinct ones there are
+        boolean[] isTarget = new boolean[graph.cityCount()];
+        int distinctTargets = 0;
+        for (int target : targetsCopy) {
+            if (!isTarget[target]) {
+                isTarget[target] = true;
+                distinctTargets++;
+            }
+        }
+
+        ThreadLocal<SearchWorkspace> workspaces = ThreadLocal.withInitial(() -> new SearchWorkspace(graph.cityCount()));
+        pool.invoke(new RowTask(graph, sourcesCopy, targetsCopy, isTarget, distinctTargets,
+                distances, workspaces, 0, sourcesCopy.length));
+
+        return new DistanceMatrix(sourcesCopy, targetsCopy, distances, System.nanoTime() - start);
+    }
+
+    public int sourceCount() {
+        return sources.length;
+    }
+
+    public int targetCount() {
+        return targets.length;
+    }
+
+    public int source(int row) {
+        return sources[row];
+    }
+
+    public int target(int column) {
+        return targets[column];
+    }
+
+    /**
+     * @param row Position in the sources array
+     * @param column Position in the targets array
+     */
+    public double distance(int row, int column) {
+        return distances[row * targets.length + column];
+    }
+
+    /**
+     * Copy of the row-major matrix
+     */
+    public double[] toArray() {
+        return distances.clone();
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double pairsPerSecond() {
+        return distances.length / Math.max(1e-9, elapsedNanos / 1e9);
+    }
+
+    /**
+     * Splits the source rows in halves until one row is left, then runs its search
+     */
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable, but these tasks never leave the pool
+    private static final class RowTask extends RecursiveAction {
+        private final RoadGraph graph;
+        private final int[] sources;
+        private final int[] targets;
+        private final boolean[] isTarget;
+        private final int distinctTargets;
+        private final double[] distances;
+        private final ThreadLocal<SearchWorkspace> workspaces;
+        private final int from;
+        private final int to;
+
+        RowTask(RoadGraph graph, int[] sources, int[] targets, boolean[] isTarget, int distinctTargets,
+                double[] distances, ThreadLocal<SearchWorkspace> workspaces, int from, int to) {
+            this.graph = graph;
+            this.sources = sources;
+            this.targets = targets;
+            this.isTarget = isTarget;
+            this.distinctTargets = distinctTargets;
+            this.distances = distances;
+            this.workspaces = workspaces;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowTask(graph, sources, targets, isTarget, distinctTargets, distances, workspaces, from, middle),
+                          new RowTask(graph, sources, targets, isTarget, distinctTargets, distances, workspaces, middle, to));
+                return;
+            }
+            if (from < to) {
+                searchRow(from);
+            }
+        }
+
+        // Dijkstra from one source until all targets are settled
+        private void searchRow(int row) {
+            SearchWorkspace ws = workspaces.get();
+            ws.reset();
+            ws.relax(sources[row], 0.0, -1, 0.0);
+            int targetsLeft = distinctTargets;
+
+            while (!ws.heap.isEmpty() && targetsLeft > 0) {
+                int current = ws.heap.pollMin();
+                ws.settled[current] = true;
+                if (isTarget[current]) targetsLeft--;
+
+                double currentDistance = ws.distances[current];
+                for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                    int neighbor = graph.edgeTarget(e);
+                    if (!ws.settled[neighbor]) {
+                        double newDistance = currentDistance + graph.edgeWeight(e);
+                        if (newDistance < ws.distances[neighbor]) {
+                            ws.relax(neighbor, newDistance, current, newDistance);
+                        }
+                    }
+                }
+            }
+
+            int base = row * targets.length;
+            for (int column = 0; column < targets.length; column++) {
+                distances[base + column] = ws.distances[targets[column]];
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+// All-pairs shortest distances plus a next-hop matrix, computed once at startup.
+// A query is then a table lookup and a walk along the next hops, with no search at all.
+// Memory is V * V doubles + V * V ints (about 80 KB for 81 provinces), so this is meant
+// for province-sized graphs. Queries are safe to share between threads. When a road
+// changes, only the rows of the sources whose distances can change are recomputed, in
+// place; that must not overlap with queries.
+
+package navigation;
+
+import java.util.stream.IntStream;
+
+public final class DistanceTable implements PathFinder, RoadChangeListener {
+    private final RoadGraph graph;
+    private final int numCities;
+    private final double[] distances; // [source * numCities + target]
+    private final int[] nextHop;      // first city after source on the way to target, -1 if none
+
+    private long repairedRows;
+
+    private DistanceTable(RoadGraph graph, int numCities, double[] distances, int[] nextHop) {
+        this.graph = graph;
+        this.numCities = numCities;
+        this.distances = distances;
+        this.nextHop = nextHop;
+    }
+
+    /**
+     * Run one Dijkstra per source city, spread over all cores
+     * @param graph Road graph
+     * @return Filled table
+     */
+    public static DistanceTable compute(RoadGraph graph) {
+        int numCities = graph.cityCount();
+        if ((long) numCities * numCities > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many cities for an all-pairs table: " + numCities);
+        }
+
+        double[] distances = new double[numCities * numCities];
+        int[] nextHop = new int[numCities * numCities];
+
+        // Each worker thread reuses its own Dijkstra workspace
+        ThreadLocal<DijkstraPathFinder> finders = ThreadLocal.withInitial(() -> new DijkstraPathFinder(graph));
+
+        IntStream.range(0, numCities).parallel().forEach(source -> {
+            ShortestPathTree tree = finders.get().shortestPathTree(source);
+            fillRow(tree, source, numCities, distances, nextHop);
+        });
+
+        DistanceTable table = new DistanceTable(graph, numCities, distances, nextHop);
+        graph.addRoadListener(table);
+        return table;
+    }
+
+    /**
+     * Recompute the rows of the sources whose distances can change
+     */
+    @Override
+    public void roadChanged(RoadGraph changedGraph, int road, double oldWeight, double newWeight) {
+        if (changedGraph != graph) return;
+
+        int city1 = graph.roadFrom(road);
+        int city2 = graph.roadTo(road);
+        DijkstraPathFinder dijkstra = null;
+        for (int source = 0; source < numCities; source++) {
+            if (ShortestPathTree.roadChangeAffects(distance(source, city1), distance(source, city2), oldWeight, newWeight)) {
+                if (dijkstra == null) dijkstra = new DijkstraPathFinder(graph);
+                fillRow(dijkstra.shortestPathTree(source), source, numCities, distances, nextHop);
+                repairedRows++;
+            }
+        }
+    }
+
+    /**
+     * Rows recomputed because of road changes so far
+     */
+    public long repairedRows() {
+        return repairedRows;
+    }
+
+    // Copy one source's distances and derive its next hops from the previous-city tree
+    private static void fillRow(ShortestPathTree tree, int source, int numCities, double[] distances, int[] nextHop) {
+        int base = source * numCities;
+        for (int target = 0; target < numCities; target++) {
+            distances[base + target] = tree.distance(target);
+            nextHop[base + target] = -2; // not computed yet
+        }
+        nextHop[base + source] = -1;
+
+        int[] chain = new int[numCities];
+        for (int target = 0; target < numCities; target++) {
+            if (nextHop[base + target] != -2) continue;
+            if (tree.distance(target) == Double.POSITIVE_INFINITY) {
+                nextHop[base + target] = -1;
+                continue;
+            }
+
+            // Climb towards the source until a city whose next hop is known
+            int length = 0;
+            int city = target;
+            while (nextHop[base + city] == -2 && tree.previousCity(city) != source) {
+                chain[length++] = city;
+                city = tree.previousCity(city);
+            }
+            int hop = nextHop[base + city] == -2 ? city : nextHop[base + city];
+            nextHop[base + city] = hop;
+            for (int i = 0; i < length; i++) {
+                nextHop[base + chain[i]] = hop;
+            }
+        }
+    }
+
+    public int cityCount() {
+        return numCities;
+    }
+
+    /**
+     * @return Shortest distance between the cities, or infinity if unreachable
+     */
+    public double distance(int source, int target) {
+        return distances[source * numCities + target];
+    }
+
+    public int nextHop(int source, int target) {
+        return nextHop[source * numCities + target];
+    }
+
+    @Override
+    public Route findRoute(int source, int target) {
+        if (distance(source, target) == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        int length = 1;
+        for (int city = source; city != target; city = nextHop(city, target)) {
+            length++;
+        }
+        int[] cities = new int[length];
+        int city = source;
+        for (int i = 0; i < length; i++) {
+            cities[i] = city;
+            if (city != target) city = nextHop(city, target);
+        }
+        return new Route(cities, distance(source, target), 0);
+    }
+}
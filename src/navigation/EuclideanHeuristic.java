@@ -0,0 +1,18 @@
+// Straight-line distance between two cities, scaled to road-length units.
+// The graph keeps the scale at or below every road's length per unit of straight line,
+// so no route can be shorter than this bound, whether lengths are km or map pixels.
+
+package navigation;
+
+public final class EuclideanHeuristic implements Heuristic {
+    private final RoadGraph graph;
+
+    public EuclideanHeuristic(RoadGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public double estimate(int city, int target) {
+        return graph.straightLineBound(city, target);
+    }
+}
@@ -0,0 +1,330 @@
+// Binary road graph file: everything RoadGraph holds after loading, so opening it is a
+// few bulk copies instead of parsing text, splitting lines and rebuilding the CSR arrays.
+// Convert the text files once ("GraphFile city-coordinates.txt cities-roads.txt out.graph")
+// and load the result with read().
+//
+// Layout (little-endian, every section starts on an 8-byte boundary):
+//   header (64 bytes): magic "RGF1", version, flags (bit 0 = km), city count, road count,
+//                      name bytes, heuristic scale, CRC-32C of all sections
+//   x, y, latitude, longitude         double[cities] each
+//   road from, road to                int[roads] each
+//   road length                       double[roads]
+//   road closed                       byte[roads]
+//   edge offsets                      int[cities + 1]   (CSR, see RoadGraph)
+//   edge targets, edge roads          int[2 * roads] each
+//   edge weights                      double[2 * roads]
+//   name offsets                      int[cities + 1]
+//   names                             UTF-8 bytes, name i = bytes offset[i] .. offset[i + 1]
+//
+// Sections are opened with FileChannel.map, so the file goes from the OS page cache (shared
+// by every process that opens it) straight into the arrays, and each section is mapped on
+// its own, so files over 2 GB work. The arrays are copies: engines index plain arrays in
+// their inner loops, and edge weights must stay writable for closed roads.
+
+package navigation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+public final class GraphFile {
+    private static final int FILE_MAGIC = 0x31464752;    // "RGF1" in little-endian order
+    private static final int FILE_VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int FLAG_KILOMETRES = 1;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private GraphFile() {
+    }
+
+    /**
+     * Save a graph (its current road lengths and closures included)
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(RoadGraph graph, String path) throws IOException {
+        int numCities = graph.cityCount();
+        int numRoads = graph.roadCount();
+        int numEdges = graph.edgeCount();
+
+        byte[][] names = new byte[numCities][];
+        long nameBytes = 0;
+        for (int i = 0; i < numCities; i++) {
+            names[i] = graph.cityName(i).getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[i].length;
+        }
+        if (nameBytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("City names too long for one name section: " + nameBytes + " bytes");
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            SectionWriter out = new SectionWriter(channel);
+
+            for (int i = 0; i < numCities; i++) out.putDouble(graph.x(i));
+            out.endSection();
+            for (int i = 0; i < numCities; i++) out.putDouble(graph.y(i));
+            out.endSection();
+            for (int i = 0; i < numCities; i++) out.putDouble(graph.latitude(i));
+            out.endSection();
+            for (int i = 0; i < numCities; i++) out.putDouble(graph.longitude(i));
+            out.endSection();
+
+            for (int r = 0; r < numRoads; r++) out.putInt(graph.roadFrom(r));
+            out.endSection();
+            for (int r = 0; r < numRoads; r++) out.putInt(graph.roadTo(r));
+            out.endSection();
+            for (int r = 0; r < numRoads; r++) out.putDouble(graph.roadLength(r));
+            out.endSection();
+            for (int r = 0; r < numRoads; r++) out.putByte(graph.isRoadClosed(r) ? (byte) 1 : (byte) 0);
+            out.endSection();
+
+            for (int i = 0; i < numCities; i++) out.putInt(graph.edgeStart(i));
+            out.putInt(numEdges);
+            out.endSection();
+            for (int e = 0; e < numEdges; e++) out.putInt(graph.edgeTarget(e));
+            out.endSection();
+            for (int e = 0; e < numEdges; e++) out.putInt(graph.edgeRoad(e));
+            out.endSection();
+            for (int e = 0; e < numEdges; e++) out.putDouble(graph.edgeWeight(e));
+            out.endSection();
+
+            int offset = 0;
+            for (int i = 0; i < numCities; i++) {
+                out.putInt(offset);
+                offset += names[i].length;
+            }
+            out.putInt(offset);
+            out.endSection();
+            for (byte[] name : names) out.putBytes(name);
+            out.endSection();
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(FILE_MAGIC);
+            header.putInt(FILE_VERSION);
+            header.putInt(graph.isKilometres() ? FLAG_KILOMETRES : 0);
+            header.putInt(numCities);
+            header.putInt(numRoads);
+            header.putInt((int) nameBytes);
+            header.putDouble(graph.heuristicScale());
+            header.putLong(out.checksum());
+            header.rewind();
+            channel.write(header, 0);
+        }
+    }
+
+    /**
+     * Open a file written by write()
+     * @return The graph
+     * @throws IOException if the file cannot be read, is not a graph file, has another
+     *         version, is truncated or fails the checksum
+     */
+    public static RoadGraph read(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a graph file (too short): " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != FILE_MAGIC) {
+                throw new IOException("Not a graph file: " + path);
+            }
+            int version = header.getInt();
+            if (version != FILE_VERSION) {
+                throw new IOException("Unsupported graph file version " + version + " (expected " + FILE_VERSION + "): " + path);
+            }
+            int flags = header.getInt();
+            int numCities = header.getInt();
+            int numRoads = header.getInt();
+            int nameBytes = header.getInt();
+            double heuristicScale = header.getDouble();
+            long checksum = header.getLong();
+            if (numCities < 0 || numRoads < 0 || nameBytes < 0 || numRoads > (Integer.MAX_VALUE - 8) / 2) {
+                throw new IOException("Corrupt graph file header: " + path);
+            }
+            int numEdges = 2 * numRoads;
+
+            long expectedSize = HEADER_BYTES
+                    + 4 * align(8L * numCities)
+                    + 2 * align(4L * numRoads) + align(8L * numRoads) + align(numRoads)
+                    + align(4L * (numCities + 1)) + 2 * align(4L * numEdges) + align(8L * numEdges)
+                    + align(4L * (numCities + 1)) + align(nameBytes);
+            if (channel.size() != expectedSize) {
+                throw new IOException("Graph file has " + channel.size() + " bytes, expected " + expectedSize + ": " + path);
+            }
+
+            SectionReader in = new SectionReader(channel);
+            double[] xs = in.doubles(numCities);
+            double[] ys = in.doubles(numCities);
+            double[] latitudes = in.doubles(numCities);
+            double[] longitudes = in.doubles(numCities);
+            int[] roadFrom = in.ints(numRoads);
+            int[] roadTo = in.ints(numRoads);
+            double[] roadLength = in.doubles(numRoads);
+            byte[] closedBytes = in.bytes(numRoads);
+            int[] edgeOffsets = in.ints(numCities + 1);
+            int[] edgeTargets = in.ints(numEdges);
+            int[] edgeRoads = in.ints(numEdges);
+            double[] edgeWeights = in.doubles(numEdges);
+            int[] nameOffsets = in.ints(numCities + 1);
+            byte[] nameData = in.bytes(nameBytes);
+
+            if (in.checksum() != checksum) {
+                throw new IOException("Graph file checksum mismatch (file is corrupt): " + path);
+            }
+
+            boolean[] roadClosed = new boolean[numRoads];
+            for (int r = 0; r < numRoads; r++) {
+                roadClosed[r] = closedBytes[r] != 0;
+            }
+            String[] names = new String[numCities];
+            for (int i = 0; i < numCities; i++) {
+                names[i] = new String(nameData, nameOffsets[i], nameOffsets[i + 1] - nameOffsets[i], StandardCharsets.UTF_8);
+            }
+
+            return new RoadGraph(names, xs, ys, latitudes, longitudes, (flags & FLAG_KILOMETRES) != 0, heuristicScale,
+                    roadFrom, roadTo, roadLength, roadClosed, edgeOffsets, edgeTargets, edgeWeights, edgeRoads);
+        }
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    // Buffered little-endian writer that pads sections to 8 bytes and checksums their contents
+    private static final class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C crc = new CRC32C();
+        private long sectionBytes;
+
+        SectionWriter(FileChannel channel) throws IOException {
+            this.channel = channel;
+            channel.position(HEADER_BYTES);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+            sectionBytes += 4;
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+            sectionBytes += 8;
+        }
+
+        void putByte(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+            sectionBytes++;
+        }
+
+        void putBytes(byte[] values) throws IOException {
+            for (int i = 0; i < values.length; ) {
+                ensure(1);
+                int count = Math.min(buffer.remaining(), values.length - i);
+                buffer.put(values, i, count);
+                i += count;
+            }
+            sectionBytes += values.length;
+        }
+
+        // Padding is written but not checksummed
+        void endSection() throws IOException {
+            drain();
+            int padding = (int) (align(sectionBytes) - sectionBytes);
+            if (padding > 0) {
+                channel.write(ByteBuffer.allocate(padding));
+            }
+            sectionBytes = 0;
+        }
+
+        void flush() throws IOException {
+            drain();
+        }
+
+        long checksum() {
+            return crc.getValue();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    // Maps one section at a time, checksums it and bulk-copies it into an array
+    private static final class SectionReader {
+        private final FileChannel channel;
+        private final CRC32C crc = new CRC32C();
+        private long position = HEADER_BYTES;
+
+        SectionReader(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        double[] doubles(int count) throws IOException {
+            double[] values = new double[count];
+            section(8L * count).asDoubleBuffer().get(values);
+            return values;
+        }
+
+        int[] ints(int count) throws IOException {
+            int[] values = new int[count];
+            section(4L * count).asIntBuffer().get(values);
+            return values;
+        }
+
+        byte[] bytes(int count) throws IOException {
+            byte[] values = new byte[count];
+            section(count).get(values);
+            return values;
+        }
+
+        long checksum() {
+            return crc.getValue();
+        }
+
+        private ByteBuffer section(long bytes) throws IOException {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes);
+            position += align(bytes);
+            crc.update(mapped.duplicate());
+            return mapped.order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Usage: GraphFile coordinatesPath roadsPath outputPath
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: GraphFile coordinatesPath roadsPath outputPath");
+            return;
+        }
+        long start = System.nanoTime();
+        RoadGraph graph = RoadGraph.load(args[0], args[1]);
+        double parseMillis = (System.nanoTime() - start) / 1_000_000.0;
+        write(graph, args[2]);
+        System.out.println("Wrote " + graph.cityCount() + " cities and " + graph.roadCount() + " roads to " + args[2]
+                + " (text parsed in " + String.format("%.2f", parseMillis) + " ms)");
+
+        start = System.nanoTime();
+        read(args[2]);
+        System.out.println("Binary load: " + String.format("%.2f", (System.nanoTime() - start) / 1_000_000.0) + " ms");
+    }
+}
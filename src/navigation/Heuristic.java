@@ -0,0 +1,14 @@
+// Lower bound on the remaining distance, used by goal-directed (A*) searches.
+// Implementations must never overestimate and should be consistent:
+// estimate(u, t) <= length(u, v) + estimate(v, t) for every road u-v.
+
+package navigation;
+
+public interface Heuristic {
+    /**
+     * @param city City the search is currently at
+     * @param target Destination city
+     * @return Lower bound on the shortest distance from city to target
+     */
+    double estimate(int city, int target);
+}
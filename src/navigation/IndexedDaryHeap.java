@@ -0,0 +1,150 @@
+// Indexed d-ary min-heap over city indices with primitive double keys.
+// Supports decrease-key without boxing, which is what Dijkstra-style searches need.
+
+package navigation;
+
+import java.util.Arrays;
+
+public final class IndexedDaryHeap {
+    private final int arity;
+    private final int[] heap;        // heap[slot] = city index
+    private final int[] position;    // position[city] = slot in heap, or -1 if not queued
+    private final double[] keys;     // keys[city] = current priority
+    private int size;
+
+    /**
+     * @param capacity Number of distinct indices (cities) the heap can hold
+     * @param arity Children per node; 4 is a good default for road graphs
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, 4);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int city) {
+        return position[city] != -1;
+    }
+
+    public double key(int city) {
+        return keys[city];
+    }
+
+    /**
+     * Insert a city, or lower its key if it is already queued with a larger one
+     * @return true if the heap changed
+     */
+    public boolean insertOrDecrease(int city, double key) {
+        int slot = position[city];
+        if (slot == -1) {
+            keys[city] = key;
+            heap[size] = city;
+            position[city] = size;
+            siftUp(size++);
+            return true;
+        }
+        if (key < keys[city]) {
+            keys[city] = key;
+            siftUp(slot);
+            return true;
+        }
+        return false;
+    }
+
+    public int peekMin() {
+        return heap[0];
+    }
+
+    public double minKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Remove and return the city with the smallest key (ties go to the smaller index)
+     */
+    public int pollMin() {
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Empty the heap in O(size) so it can be reused by the next search
+     */
+    public void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            position[heap[slot]] = -1;
+        }
+        size = 0;
+    }
+
+    // Same order as the linear minimum scan: smaller key first, then smaller index
+    private boolean less(int city1, int city2) {
+        double key1 = keys[city1];
+        double key2 = keys[city2];
+        return key1 < key2 || (key1 == key2 && city1 < city2);
+    }
+
+    private void siftUp(int slot) {
+        int city = heap[slot];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / arity;
+            int parent = heap[parentSlot];
+            if (!less(city, parent)) break;
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = city;
+        position[city] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int city = heap[slot];
+        while (true) {
+            int firstChild = slot * arity + 1;
+            if (firstChild >= size) break;
+
+            // Find the smallest child
+            int bestSlot = firstChild;
+            int lastChild = Math.min(firstChild + arity, size);
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (less(heap[child], heap[bestSlot])) {
+                    bestSlot = child;
+                }
+            }
+
+            int best = heap[bestSlot];
+            if (!less(best, city)) break;
+            heap[slot] = best;
+            position[best] = slot;
+            slot = bestSlot;
+        }
+        heap[slot] = city;
+        position[city] = slot;
+    }
+}
@@ -0,0 +1,73 @@
+// Cities reachable from a source within a budget, in increasing distance.
+// Any smaller budget is a prefix of the same arrays, found by binary search.
+
+package navigation;
+
+import java.util.Arrays;
+
+public final class Isochrone {
+    private final int source;
+    private final double budget;
+    private final int[] cities;
+    private final double[] distances;
+
+    Isochrone(int source, double budget, int[] cities, double[] distances) {
+        this.source = source;
+        this.budget = budget;
+        this.cities = cities;
+        this.distances = distances;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    /**
+     * Budget the search ran with (the largest one answered)
+     */
+    public double budget() {
+        return budget;
+    }
+
+    /**
+     * Number of cities within the search budget, the source included
+     */
+    public int size() {
+        return cities.length;
+    }
+
+    /**
+     * i-th closest reachable city
+     */
+    public int city(int i) {
+        return cities[i];
+    }
+
+    public double distance(int i) {
+        return distances[i];
+    }
+
+    /**
+     * Number of cities within a budget no larger than budget()
+     */
+    public int count(double smallerBudget) {
+        int low = 0;
+        int high = distances.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (distances[middle] <= smallerBudget) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Cities within a budget no larger than budget(), closest first
+     */
+    public int[] citiesWithin(double smallerBudget) {
+        return Arrays.copyOf(cities, count(smallerBudget));
+    }
+}
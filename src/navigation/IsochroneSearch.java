@@ -0,0 +1,82 @@
+// Reachability query: every city within a distance budget of a depot.
+// A Dijkstra that never queues a city beyond the budget, so the work is proportional to
+// the reachable area and not to the whole graph. Cities are settled in increasing distance,
+// so one search up to the largest budget answers every smaller budget as a prefix.
+// Not thread-safe: each instance owns one reusable workspace.
+
+package navigation;
+
+public final class IsochroneSearch {
+    private final RoadGraph graph;
+    private final SearchWorkspace workspace;
+    private final int[] settleOrder;
+
+    public IsochroneSearch(RoadGraph graph) {
+        this.graph = graph;
+        this.workspace = new SearchWorkspace(graph.cityCount());
+        this.settleOrder = new int[graph.cityCount()];
+    }
+
+    /**
+     * Find all cities within budget of source
+     * @param source Depot city index
+     * @param budget Largest distance of interest, not negative; smaller budgets can be read
+     *               from the result
+     * @return Reachable cities sorted by distance, the source first
+     */
+    public Isochrone reachable(int source, double budget) {
+        if (!(budget >= 0.0)) {
+            throw new IllegalArgumentException("Budget must be a non-negative number: " + budget);
+        }
+        SearchWorkspace ws = workspace;
+        IndexedDaryHeap heap = ws.heap;
+        double[] distances = ws.distances;
+        boolean[] settled = ws.settled;
+
+        ws.reset();
+        ws.relax(source, 0.0, -1, 0.0);
+        int count = 0;
+
+        while (!heap.isEmpty()) {
+            int current = heap.pollMin();
+            settled[current] = true;
+            settleOrder[count++] = current;
+            double currentDistance = distances[current];
+
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                int neighbor = graph.edgeTarget(e);
+                if (!settled[neighbor]) {
+                    double newDistance = currentDistance + graph.edgeWeight(e);
+                    // Cities past the budget are never queued, so the search stops by itself
+                    if (newDistance <= budget && newDistance < distances[neighbor]) {
+                        ws.relax(neighbor, newDistance, current, newDistance);
+                    }
+                }
+            }
+        }
+
+        int[] cities = new int[count];
+        double[] cityDistances = new double[count];
+        for (int i = 0; i < count; i++) {
+            cities[i] = settleOrder[i];
+            cityDistances[i] = distances[settleOrder[i]];
+        }
+        return new Isochrone(source, budget, cities, cityDistances);
+    }
+
+    /**
+     * Search once up to the largest of several budgets
+     * @param budgets Budgets of interest (for example 300, 600 and 900)
+     * @return Result whose count(budget) gives each band
+     */
+    public Isochrone reachable(int source, double[] budgets) {
+        double largest = 0.0;
+        for (double budget : budgets) {
+            if (!(budget >= 0.0)) {
+                throw new IllegalArgumentException("Budget must be a non-negative number: " + budget);
+            }
+            largest = Math.max(largest, budget);
+        }
+        return reachable(source, largest);
+    }
+}
@@ -0,0 +1,181 @@
+// Yen's algorithm for the k shortest loopless routes.
+// Every spur search needs the distance from its spur city to the destination, and
+// removing roads can only make that distance longer, so one reverse shortest-path tree
+// from the destination serves all spur searches: it is an exact A* heuristic, and when
+// the tree path from the spur city avoids every removed city and road it is the spur path
+// itself and no search is needed. The cost is one Dijkstra plus small guided searches
+// instead of k full Dijkstra runs per root prefix.
+// Not thread-safe: each instance owns one reusable workspace.
+
+package navigation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public final class KShortestPaths implements AlternativeRouteFinder, PathFinder {
+    private final RoadGraph graph;
+    private final DijkstraPathFinder dijkstra;
+    private final SearchWorkspace workspace;
+    private final boolean[] blockedCity;  // cities of the root path (spur search may not enter)
+    private final boolean[] blockedNext;  // first hops out of the spur city already used by earlier routes
+    private int spurSettled;              // cities settled by the last spur search
+
+    public KShortestPaths(RoadGraph graph) {
+        this.graph = graph;
+        this.dijkstra = new DijkstraPathFinder(graph);
+        this.workspace = new SearchWorkspace(graph.cityCount());
+        this.blockedCity = new boolean[graph.cityCount()];
+        this.blockedNext = new boolean[graph.cityCount()];
+    }
+
+    @Override
+    public Route findRoute(int source, int target) {
+        return dijkstra.findRoute(source, target);
+    }
+
+    @Override
+    public List<Route> findRoutes(int source, int target, int count) {
+        ArrayList<Route> routes = new ArrayList<>();
+        ShortestPathTree toTarget = dijkstra.shortestPathTree(target); // roads are symmetric
+        Route first = toTarget.routeTo(source);
+        if (first == null || count < 1) {
+            return routes;
+        }
+        routes.add(reverse(first));
+
+        PriorityQueue<Route> candidates = new PriorityQueue<>((a, b) -> Double.compare(a.distance(), b.distance()));
+        HashSet<String> seen = new HashSet<>();
+        seen.add(Arrays.toString(routes.get(0).cities()));
+
+        while (routes.size() < count) {
+            Route last = routes.get(routes.size() - 1);
+
+            // Every city of the last route (except the destination) is tried as spur city
+            double rootDistance = 0.0;
+            for (int i = 0; i + 1 < last.size(); i++) {
+                int spur = last.city(i);
+
+                // Block the first hop of every known route that shares this root
+                for (Route route : routes) {
+                    if (route.size() > i + 1 && sharesPrefix(route, last, i)) {
+                        blockedNext[route.city(i + 1)] = true;
+                    }
+                }
+                for (int j = 0; j < i; j++) {
+                    blockedCity[last.city(j)] = true;
+                }
+
+                int[] spurPath = spurPath(spur, target, toTarget);
+                if (spurPath != null) {
+                    int[] cities = new int[i + spurPath.length];
+                    for (int j = 0; j < i; j++) cities[j] = last.city(j);
+                    System.arraycopy(spurPath, 0, cities, i, spurPath.length);
+
+                    if (seen.add(Arrays.toString(cities))) {
+                        candidates.add(new Route(cities, rootDistance + pathLength(spurPath), spurSettled));
+                    }
+                }
+
+                // Undo the blocks for the next spur city
+                for (Route route : routes) {
+                    if (route.size() > i + 1) blockedNext[route.city(i + 1)] = false;
+                }
+                for (int j = 0; j < i; j++) {
+                    blockedCity[last.city(j)] = false;
+                }
+                rootDistance += graph.distance(last.city(i), last.city(i + 1));
+            }
+
+            if (candidates.isEmpty()) break;
+            routes.add(candidates.poll());
+        }
+        return routes;
+    }
+
+    // Shortest path from spur to target that avoids blocked cities and first hops
+    private int[] spurPath(int spur, int target, ShortestPathTree toTarget) {
+        spurSettled = 0;
+        if (toTarget.distance(spur) == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        // Reuse the tree: its path is optimal if nothing on it is blocked
+        int next = toTarget.previousCity(spur);
+        boolean treePathFree = next == -1 || !blockedNext[next];
+        for (int city = next; treePathFree && city != -1; city = toTarget.previousCity(city)) {
+            if (blockedCity[city]) treePathFree = false;
+        }
+        if (treePathFree) {
+            int length = 1;
+            for (int city = next; city != -1; city = toTarget.previousCity(city)) length++;
+            int[] path = new int[length];
+            path[0] = spur;
+            int city = next;
+            for (int i = 1; i < length; i++) {
+                path[i] = city;
+                city = toTarget.previousCity(city);
+            }
+            return path;
+        }
+
+        // Otherwise A* guided by the exact unblocked distances to the destination
+        SearchWorkspace ws = workspace;
+        ws.reset();
+        ws.relax(spur, 0.0, -1, toTarget.distance(spur));
+
+        while (!ws.heap.isEmpty()) {
+            int current = ws.heap.pollMin();
+            ws.settled[current] = true;
+            spurSettled++;
+            if (current == target) break;
+
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                int neighbor = graph.edgeTarget(e);
+                if (blockedCity[neighbor] || ws.settled[neighbor]) continue;
+                if (current == spur && blockedNext[neighbor]) continue;
+
+                double bound = toTarget.distance(neighbor);
+                if (bound == Double.POSITIVE_INFINITY) continue;
+
+                double newDistance = ws.distances[current] + graph.edgeWeight(e);
+                if (newDistance < ws.distances[neighbor]) {
+                    ws.relax(neighbor, newDistance, current, newDistance + bound);
+                }
+            }
+        }
+
+        if (ws.distances[target] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return ws.route(target, spurSettled).cities();
+    }
+
+    private double pathLength(int[] path) {
+        double length = 0.0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            length += graph.distance(path[i], path[i + 1]);
+        }
+        return length;
+    }
+
+    // Do the routes visit the same cities in positions 0..length?
+    private static boolean sharesPrefix(Route a, Route b, int length) {
+        if (a.size() <= length || b.size() <= length) return false;
+        for (int i = 0; i <= length; i++) {
+            if (a.city(i) != b.city(i)) return false;
+        }
+        return true;
+    }
+
+    // A tree route goes destination -> source; flip it
+    private static Route reverse(Route route) {
+        int[] cities = new int[route.size()];
+        for (int i = 0; i < cities.length; i++) {
+            cities[i] = route.city(cities.length - 1 - i);
+        }
+        return new Route(cities, route.distance(), 0);
+    }
+}
@@ -0,0 +1,131 @@
+// ALT heuristic (A*, Landmarks, Triangle inequality).
+// For a few landmark cities the exact road distance to every city is precomputed.
+// Because roads are symmetric, |d(L, target) - d(L, city)| <= d(city, target) for every
+// landmark L, and the largest of these differences is an admissible, consistent bound
+// that works for any weight metric, not only ones that follow straight-line distance.
+// Longer or closed roads keep the bounds admissible (they only get looser); when a road
+// gets shorter, the tables of the landmarks it affects are recomputed.
+
+package navigation;
+
+import java.util.Arrays;
+
+public final class LandmarkHeuristic implements Heuristic, RoadChangeListener {
+    private final RoadGraph graph;
+    private final int landmarkCount;
+    private final int[] landmarks;
+    private final double[] landmarkDistances; // [city * landmarkCount + i] = d(landmark i, city)
+
+    /**
+     * Choose landmarks and precompute their distance tables
+     * @param graph Road graph (uses the same city indices as the rest of the program)
+     * @param landmarkCount Number of landmarks; more gives tighter bounds but costs
+     *                      landmarkCount * V doubles of memory and lookups per estimate.
+     *                      Fewer are chosen if the first landmark's component runs out of
+     *                      cities that are not landmarks yet.
+     */
+    public LandmarkHeuristic(RoadGraph graph, int landmarkCount) {
+        int numCities = graph.cityCount();
+        if (numCities == 0) {
+            throw new IllegalArgumentException("Cannot choose landmarks in a graph without cities");
+        }
+        this.graph = graph;
+        int wanted = Math.max(1, Math.min(landmarkCount, numCities));
+        int[] chosen = new int[wanted];
+        double[][] tables = new double[wanted][];
+
+        DijkstraPathFinder dijkstra = new DijkstraPathFinder(graph);
+
+        // First landmark: the westernmost city, an extreme province by coordinate
+        int first = 0;
+        for (int city = 1; city < numCities; city++) {
+            if (graph.x(city) < graph.x(first)) first = city;
+        }
+
+        // Farthest-point selection: each next landmark is the city farthest (by road)
+        // from all landmarks chosen so far, which tends to pick the outer provinces
+        double[] nearestLandmark = new double[numCities];
+        Arrays.fill(nearestLandmark, Double.POSITIVE_INFINITY);
+        int next = first;
+        int count = 0;
+
+        while (count < wanted) {
+            chosen[count] = next;
+            ShortestPathTree tree = dijkstra.shortestPathTree(next);
+            double[] table = tables[count++] = new double[numCities];
+
+            int farthest = -1;
+            for (int city = 0; city < numCities; city++) {
+                double distance = tree.distance(city);
+                table[city] = distance;
+
+                if (distance < nearestLandmark[city]) {
+                    nearestLandmark[city] = distance;
+                }
+                // Cities no landmark can reach (other components) would make useless landmarks
+                if (nearestLandmark[city] != Double.POSITIVE_INFINITY
+                        && (farthest == -1 || nearestLandmark[city] > nearestLandmark[farthest])) {
+                    farthest = city;
+                }
+            }
+            // Every reachable city is already a landmark (or zero road length away from one)
+            if (nearestLandmark[farthest] == 0.0) break;
+            next = farthest;
+        }
+
+        this.landmarkCount = count;
+        this.landmarks = Arrays.copyOf(chosen, count);
+        this.landmarkDistances = new double[numCities * count];
+        for (int i = 0; i < count; i++) {
+            for (int city = 0; city < numCities; city++) {
+                landmarkDistances[city * count + i] = tables[i][city];
+            }
+        }
+        graph.addRoadListener(this);
+    }
+
+    @Override
+    public void roadChanged(RoadGraph changedGraph, int road, double oldWeight, double newWeight) {
+        if (changedGraph != graph || newWeight >= oldWeight) return;
+
+        int base1 = graph.roadFrom(road) * landmarkCount;
+        int base2 = graph.roadTo(road) * landmarkCount;
+        DijkstraPathFinder dijkstra = null;
+        for (int i = 0; i < landmarkCount; i++) {
+            if (ShortestPathTree.roadChangeAffects(landmarkDistances[base1 + i], landmarkDistances[base2 + i], oldWeight, newWeight)) {
+                if (dijkstra == null) dijkstra = new DijkstraPathFinder(graph);
+                ShortestPathTree tree = dijkstra.shortestPathTree(landmarks[i]);
+                for (int city = 0; city < graph.cityCount(); city++) {
+                    landmarkDistances[city * landmarkCount + i] = tree.distance(city);
+                }
+            }
+        }
+    }
+
+    public int landmarkCount() {
+        return landmarkCount;
+    }
+
+    public int landmark(int i) {
+        return landmarks[i];
+    }
+
+    @Override
+    public double estimate(int city, int target) {
+        int cityBase = city * landmarkCount;
+        int targetBase = target * landmarkCount;
+        double best = 0.0;
+
+        for (int i = 0; i < landmarkCount; i++) {
+            double toCity = landmarkDistances[cityBase + i];
+            double toTarget = landmarkDistances[targetBase + i];
+
+            // A landmark in another component says nothing about this pair
+            if (toCity == Double.POSITIVE_INFINITY || toTarget == Double.POSITIVE_INFINITY) continue;
+
+            double bound = Math.abs(toTarget - toCity);
+            if (bound > best) best = bound;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,202 @@
+// Synthetic road networks for scale testing, written in the same text formats as
+// city-coordinates.txt and cities-roads.txt so every loading, routing and drawing path can
+// be run on 10^3 .. 10^7 cities.
+// Cities sit on a jittered grid stretched over the map picture, with latitude/longitude
+// spread over Turkey's bounding box (so road lengths come out in km). Each grid cell links
+// to its right and upper neighbours, and some cells get one diagonal, which keeps the
+// network planar like a real road map. Roads are dropped at random, but only when the two
+// cities are already connected, so the network stays in one piece with road-like degrees
+// (about 3 roads per city). Output is streamed: memory is one int per city.
+// The same size and seed always give the same files.
+
+package navigation;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public final class NetworkGenerator {
+    public static final long DEFAULT_SEED = 20251017L;
+    public static final int MIN_CITIES = 1_000;
+    public static final int MAX_CITIES = 10_000_000;
+
+    // Map picture size in pixels (same frame as the real coordinates file)
+    private static final double MAP_WIDTH = 2377;
+    private static final double MAP_HEIGHT = 1055;
+    // Bounding box of Turkey in degrees
+    private static final double MIN_LATITUDE = 36.0;
+    private static final double MAX_LATITUDE = 42.0;
+    private static final double MIN_LONGITUDE = 26.0;
+    private static final double MAX_LONGITUDE = 45.0;
+
+    private static final double JITTER = 0.3;         // largest shift from the cell centre, in cells
+    private static final double DROP_CHANCE = 0.6;    // chance to drop a grid road that closes a cycle
+    private static final double DIAGONAL_CHANCE = 0.2; // chance that a cell gets a diagonal road
+
+    private final int numCities;
+    private final int columns;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final long seed;
+
+    private NetworkGenerator(int numCities, long seed) {
+        // Grid with the aspect ratio of the map; the last row may be partly filled
+        this.numCities = numCities;
+        this.columns = (int) Math.ceil(Math.sqrt(numCities * MAP_WIDTH / MAP_HEIGHT));
+        this.cellWidth = MAP_WIDTH / columns;
+        this.cellHeight = MAP_HEIGHT / ((numCities + columns - 1) / columns);
+        this.seed = seed;
+    }
+
+    /**
+     * Write a synthetic network
+     * @param numCities Number of cities (MIN_CITIES .. MAX_CITIES)
+     * @param seed Random seed
+     * @param coordinatesPath Output in city-coordinates.txt format ("Name, x, y, lat, lon")
+     * @param roadsPath Output in cities-roads.txt format ("CityA - CityB")
+     * @return Number of roads written
+     * @throws IOException if a file cannot be written
+     */
+    public static long generate(int numCities, long seed, String coordinatesPath, String roadsPath) throws IOException {
+        if (numCities < MIN_CITIES || numCities > MAX_CITIES) {
+            throw new IllegalArgumentException("City count must be between " + MIN_CITIES + " and " + MAX_CITIES + ": " + numCities);
+        }
+
+        NetworkGenerator generator = new NetworkGenerator(numCities, seed);
+        try (Writer out = new BufferedWriter(new FileWriter(coordinatesPath), 1 << 16)) {
+            generator.writeCities(out);
+        }
+        try (Writer out = new BufferedWriter(new FileWriter(roadsPath), 1 << 16)) {
+            return generator.writeRoads(out, new Random(seed));
+        }
+    }
+
+    private void writeCities(Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        for (int city = 0; city < numCities; city++) {
+            double x = x(city);
+            double y = y(city);
+            double latitude = MIN_LATITUDE + y / MAP_HEIGHT * (MAX_LATITUDE - MIN_LATITUDE);
+            double longitude = MIN_LONGITUDE + x / MAP_WIDTH * (MAX_LONGITUDE - MIN_LONGITUDE);
+
+            line.setLength(0);
+            line.append(cityName(city)).append(", ")
+                    .append(x).append(", ")
+                    .append(y).append(", ")
+                    .append(round(latitude, 100_000)).append(", ")
+                    .append(round(longitude, 100_000)).append('\n');
+            out.append(line);
+        }
+    }
+
+    private long writeRoads(Writer out, Random random) throws IOException {
+        // Union-find over the cities: a road is only dropped when it would close a cycle
+        int[] parent = new int[numCities];
+        for (int i = 0; i < numCities; i++) {
+            parent[i] = i;
+        }
+
+        long numRoads = 0;
+        StringBuilder line = new StringBuilder(32);
+        for (int city = 0; city < numCities; city++) {
+            int right = city % columns + 1 < columns && city + 1 < numCities ? city + 1 : -1;
+            int up = city + columns < numCities ? city + columns : -1;
+
+            if (right != -1) numRoads += maybeWrite(out, line, parent, city, right, random);
+            if (up != -1) numRoads += maybeWrite(out, line, parent, city, up, random);
+
+            // At most one diagonal per cell, and only when the other two corners lie on
+            // either side of it, so no road of the grid can cross it
+            if (right != -1 && up != -1 && up + 1 < numCities && random.nextDouble() < DIAGONAL_CHANCE) {
+                int upRight = up + 1;
+                if (random.nextBoolean()) {
+                    if (side(city, upRight, right) < 0 && side(city, upRight, up) > 0) {
+                        numRoads += write(out, line, parent, city, upRight);
+                    }
+                } else if (side(right, up, city) > 0 && side(right, up, upRight) < 0) {
+                    numRoads += write(out, line, parent, right, up);
+                }
+            }
+        }
+        return numRoads;
+    }
+
+    // Positive if city lies left of the line from city1 to city2, negative if right
+    private double side(int city1, int city2, int city) {
+        return (x(city2) - x(city1)) * (y(city) - y(city1)) - (y(city2) - y(city1)) * (x(city) - x(city1));
+    }
+
+    // Jittered cell centre; computed from a hash of the city, so any city can be placed
+    // again without storing positions
+    private double x(int city) {
+        return round((city % columns + 0.5 + jitter(city, 0)) * cellWidth, 10_000);
+    }
+
+    private double y(int city) {
+        return round((city / columns + 0.5 + jitter(city, 1)) * cellHeight, 10_000);
+    }
+
+    private double jitter(int city, int axis) {
+        long h = seed + (2L * city + axis + 1) * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;  // SplitMix64 finalizer
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return ((h >>> 11) * 0x1.0p-53 * 2 - 1) * JITTER;
+    }
+
+    private static int maybeWrite(Writer out, StringBuilder line, int[] parent, int city1, int city2, Random random) throws IOException {
+        if (random.nextDouble() < DROP_CHANCE && find(parent, city1) == find(parent, city2)) {
+            return 0;
+        }
+        return write(out, line, parent, city1, city2);
+    }
+
+    private static int write(Writer out, StringBuilder line, int[] parent, int city1, int city2) throws IOException {
+        parent[find(parent, city1)] = find(parent, city2);
+        line.setLength(0);
+        line.append(cityName(city1)).append(" - ").append(cityName(city2)).append('\n');
+        out.append(line);
+        return 1;
+    }
+
+    // Root of a city's set, halving the path on the way
+    private static int find(int[] parent, int city) {
+        while (parent[city] != city) {
+            parent[city] = parent[parent[city]];
+            city = parent[city];
+        }
+        return city;
+    }
+
+    /**
+     * Name of a generated city
+     */
+    public static String cityName(int city) {
+        return "N" + city;
+    }
+
+    private static double round(double value, double scale) {
+        return Math.round(value * scale) / scale;
+    }
+
+    /**
+     * Usage: NetworkGenerator cityCount [seed] [coordinatesPath roadsPath]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: NetworkGenerator cityCount [seed] [coordinatesPath roadsPath]");
+            return;
+        }
+        int numCities = Integer.parseInt(args[0]);
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+        String coordinatesPath = args.length > 3 ? args[2] : "city-coordinates-" + numCities + ".txt";
+        String roadsPath = args.length > 3 ? args[3] : "cities-roads-" + numCities + ".txt";
+
+        long start = System.nanoTime();
+        long numRoads = generate(numCities, seed, coordinatesPath, roadsPath);
+        System.out.println("Wrote " + numCities + " cities to " + coordinatesPath + " and " + numRoads + " roads to "
+                + roadsPath + " in " + String.format("%.2f", (System.nanoTime() - start) / 1_000_000.0) + " ms");
+    }
+}
@@ -0,0 +1,22 @@
+// Common interface of the routing engines, so the UI can switch between them.
+
+package navigation;
+
+public interface PathFinder {
+    /**
+     * Find the shortest route between two cities
+     * @param source Index of the departure city
+     * @param target Index of the destination city
+     * @return Shortest route, or null if the destination cannot be reached
+     */
+    Route findRoute(int source, int target);
+
+    /**
+     * Shortest distance only, for callers that do not need the city sequence
+     * @return Distance, or infinity if the destination cannot be reached
+     */
+    default double findDistance(int source, int target) {
+        Route route = findRoute(source, target);
+        return route == null ? Double.POSITIVE_INFINITY : route.distance();
+    }
+}
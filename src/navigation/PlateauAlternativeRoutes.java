@@ -0,0 +1,176 @@
+// Fast alternative routes with the plateau method.
+// One shortest-path tree grows from the departure and one from the destination (roads
+// are symmetric, so a tree from the destination gives distances *to* it). A road that lies
+// on both trees belongs to a "plateau"; chains of such roads are pieces that a shortest
+// route through them would use anyway. Each plateau start a gives the route
+// departure -> a (forward tree) -> destination (backward tree) of length dF(a) + dB(a).
+// Long plateaus give natural-looking alternatives, and the whole query costs two Dijkstra
+// runs. Candidates are rejected if they are too long (stretch) or share too much road with
+// a route already chosen (overlap).
+// Not thread-safe: each instance owns one Dijkstra workspace.
+
+package navigation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+public final class PlateauAlternativeRoutes implements AlternativeRouteFinder, PathFinder {
+    private final RoadGraph graph;
+    private final DijkstraPathFinder dijkstra;
+    private final double maxOverlap;
+    private final double maxStretch;
+
+    /**
+     * @param graph Road graph
+     * @param maxOverlap Largest share (0..1) of an alternative's length that may run on an already chosen route
+     * @param maxStretch Longest allowed alternative relative to the best route (for example 1.4)
+     */
+    public PlateauAlternativeRoutes(RoadGraph graph, double maxOverlap, double maxStretch) {
+        this.graph = graph;
+        this.dijkstra = new DijkstraPathFinder(graph);
+        this.maxOverlap = maxOverlap;
+        this.maxStretch = maxStretch;
+    }
+
+    public PlateauAlternativeRoutes(RoadGraph graph) {
+        this(graph, 0.5, 1.4);
+    }
+
+    @Override
+    public Route findRoute(int source, int target) {
+        return dijkstra.findRoute(source, target);
+    }
+
+    @Override
+    public List<Route> findRoutes(int source, int target, int count) {
+        ArrayList<Route> routes = new ArrayList<>();
+        ShortestPathTree forward = dijkstra.shortestPathTree(source);
+        ShortestPathTree backward = dijkstra.shortestPathTree(target);
+
+        double best = forward.distance(target);
+        if (best == Double.POSITIVE_INFINITY || count < 1) {
+            return routes;
+        }
+
+        // Collect plateau starts: the backward-tree road a -> b is also a forward-tree road,
+        // but the road into a is not (otherwise a is inside a longer plateau)
+        int numCities = graph.cityCount();
+        ArrayList<Integer> starts = new ArrayList<>();
+        ArrayList<Double> plateauLengths = new ArrayList<>();
+        for (int a = 0; a < numCities; a++) {
+            int b = backward.previousCity(a);
+            if (b == -1 || forward.previousCity(b) != a) continue;
+
+            int before = forward.previousCity(a);
+            if (before != -1 && backward.previousCity(before) == a) continue;
+
+            double via = forward.distance(a) + backward.distance(a);
+            if (via > best * maxStretch) continue;
+
+            // Walk the plateau to measure it
+            int end = a;
+            while (backward.previousCity(end) != -1 && forward.previousCity(backward.previousCity(end)) == end) {
+                end = backward.previousCity(end);
+            }
+            starts.add(a);
+            plateauLengths.add(backward.distance(a) - backward.distance(end));
+        }
+
+        // Longest plateaus first: they make the most distinct routes
+        Integer[] order = new Integer[starts.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (i, j) -> Double.compare(plateauLengths.get(j), plateauLengths.get(i)));
+
+        ArrayList<HashSet<Long>> chosenRoads = new ArrayList<>();
+        for (Integer i : order) {
+            if (routes.size() >= count) break;
+
+            int[] cities = viaRoute(starts.get(i), forward, backward);
+            if (cities == null) continue; // forward and backward parts cross: not loopless
+
+            double length = routeLength(cities);
+
+            boolean distinct = true;
+            for (HashSet<Long> other : chosenRoads) {
+                if (sharedLength(cities, other) > maxOverlap * length) {
+                    distinct = false;
+                    break;
+                }
+            }
+            if (!distinct) continue;
+
+            routes.add(new Route(cities, length, 0));
+            chosenRoads.add(roadKeys(cities));
+        }
+
+        // The shortest route is itself a plateau, except when departure = destination
+        if (routes.isEmpty()) {
+            routes.add(forward.routeTo(target));
+        }
+
+        routes.sort((r1, r2) -> Double.compare(r1.distance(), r2.distance()));
+        return routes;
+    }
+
+    // departure -> via along the forward tree, then via -> destination along the backward tree
+    private int[] viaRoute(int via, ShortestPathTree forward, ShortestPathTree backward) {
+        int forwardLength = 0;
+        for (int city = via; city != -1; city = forward.previousCity(city)) forwardLength++;
+        int backwardLength = 0;
+        for (int city = backward.previousCity(via); city != -1; city = backward.previousCity(city)) backwardLength++;
+
+        int[] cities = new int[forwardLength + backwardLength];
+        int city = via;
+        for (int i = forwardLength - 1; i >= 0; i--) {
+            cities[i] = city;
+            city = forward.previousCity(city);
+        }
+        city = backward.previousCity(via);
+        for (int i = forwardLength; i < cities.length; i++) {
+            cities[i] = city;
+            city = backward.previousCity(city);
+        }
+
+        HashSet<Integer> visited = new HashSet<>();
+        for (int c : cities) {
+            if (!visited.add(c)) return null;
+        }
+        return cities;
+    }
+
+    private double routeLength(int[] cities) {
+        double length = 0.0;
+        for (int i = 0; i + 1 < cities.length; i++) {
+            length += graph.distance(cities[i], cities[i + 1]);
+        }
+        return length;
+    }
+
+    // Length of the roads of cities that are also in roads
+    private double sharedLength(int[] cities, HashSet<Long> roads) {
+        double shared = 0.0;
+        for (int i = 0; i + 1 < cities.length; i++) {
+            if (roads.contains(roadKey(cities[i], cities[i + 1]))) {
+                shared += graph.distance(cities[i], cities[i + 1]);
+            }
+        }
+        return shared;
+    }
+
+    private static HashSet<Long> roadKeys(int[] cities) {
+        HashSet<Long> keys = new HashSet<>();
+        for (int i = 0; i + 1 < cities.length; i++) {
+            keys.add(roadKey(cities[i], cities[i + 1]));
+        }
+        return keys;
+    }
+
+    // Direction-independent key of the road between two cities
+    private static long roadKey(int city1, int city2) {
+        int low = Math.min(city1, city2);
+        int high = Math.max(city1, city2);
+        return ((long) low << 32) | high;
+    }
+}
@@ -0,0 +1,15 @@
+// Callback for code that keeps results derived from road lengths (cached trees,
+// distance tables, preprocessing) and must repair or drop them when a road changes.
+
+package navigation;
+
+public interface RoadChangeListener {
+    /**
+     * Called after a road changed; both directions of the road already have the new weight
+     * @param graph Graph the road belongs to
+     * @param road Road index
+     * @param oldWeight Weight before the change (infinity if the road was closed)
+     * @param newWeight Weight after the change (infinity if the road is now closed)
+     */
+    void roadChanged(RoadGraph graph, int road, double oldWeight, double newWeight);
+}
@@ -0,0 +1,558 @@
+// Road network shared by routing and rendering.
+// Built once at startup from city-coordinates.txt and cities-roads.txt so that a
+// Start click only pays for the search itself, not for re-reading the text files.
+// Large networks load faster from the binary format (see GraphFile).
+// Roads are kept in compressed sparse row form so large networks fit in memory.
+// Road lengths are real kilometres when the data allows it: an explicit length column in
+// cities-roads.txt ("A - B, 215.5"), else the great-circle distance between the cities'
+// latitude/longitude ("Name, x, y, lat, lon"). Without either, lengths fall back to map
+// pixels. Lengths are computed once here; x/y are only used for drawing.
+// Cities and roads are fixed, but a road can be closed, reopened or given a new length
+// in place; registered listeners (caches, tables, hierarchies) are told about each change.
+// Changes must not run while a search on the same graph is in progress.
+
+package navigation;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Scanner;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public final class RoadGraph {
+    // City data (index i describes the same city in all three arrays)
+    private final String[] cityNames;
+    private final double[] xCoordinates;
+    private final double[] yCoordinates;
+    private final double[] latitudes;    // NaN if the data file has none
+    private final double[] longitudes;
+    private final boolean kilometres;    // true if road lengths are km, false if map pixels
+
+    // Points for the straight-line bound of A*: positions on a sphere of earth radius
+    // (km) when every city has latitude/longitude, else the map pixels with z = 0
+    private final double[] pointX;
+    private final double[] pointY;
+    private final double[] pointZ;
+    private double heuristicScale;       // smallest road length per unit of straight line
+
+    // Road list as read from the file, one entry per line (used for drawing)
+    private final int[] roadFrom;
+    private final int[] roadTo;
+    private final double[] roadLength;   // kept while a road is closed, so reopening restores it
+    private final boolean[] roadClosed;
+
+    // Compressed sparse row (CSR) adjacency: the roads leaving city i are the edges
+    // edgeOffsets[i] .. edgeOffsets[i + 1] - 1, each with a target city and a length.
+    // Every road is stored in both directions, so memory is O(V + E) instead of O(V^2).
+    private final int[] edgeOffsets;
+    private final int[] edgeTargets;
+    private final double[] edgeWeights; // infinity while the road is closed
+    private final int[] edgeRoads;      // road each edge belongs to
+
+    // City name / plate code -> index, built on the first name lookup
+    private volatile CityIndex cityIndex;
+
+    private final CopyOnWriteArrayList<RoadChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private RoadGraph(String[] cityNames, double[] xCoordinates, double[] yCoordinates,
+                      double[] latitudes, double[] longitudes,
+                      int[] roadFrom, int[] roadTo, double[] givenLengths) {
+        this.cityNames = cityNames;
+        this.xCoordinates = xCoordinates;
+        this.yCoordinates = yCoordinates;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.roadFrom = roadFrom;
+        this.roadTo = roadTo;
+
+        int numCities = cityNames.length;
+        int numRoads = roadFrom.length;
+        this.roadLength = new double[numRoads];
+        this.roadClosed = new boolean[numRoads];
+        this.edgeOffsets = new int[numCities + 1];
+        this.edgeTargets = new int[2 * numRoads];
+        this.edgeWeights = new double[2 * numRoads];
+        this.edgeRoads = new int[2 * numRoads];
+
+        // Count roads per city, then turn the counts into start offsets
+        for (int r = 0; r < numRoads; r++) {
+            edgeOffsets[roadFrom[r] + 1]++;
+            edgeOffsets[roadTo[r] + 1]++;
+        }
+        for (int i = 0; i < numCities; i++) {
+            edgeOffsets[i + 1] += edgeOffsets[i];
+        }
+
+        int[] nextEdge = new int[numCities];
+        System.arraycopy(edgeOffsets, 0, nextEdge, 0, numCities);
+
+        // Kilometres only if every road has one; mixing km and pixels would be meaningless
+        boolean allKilometres = true;
+        for (int r = 0; r < numRoads && allKilometres; r++) {
+            allKilometres = !Double.isNaN(givenLengths[r])
+                    || (!Double.isNaN(latitudes[roadFrom[r]]) && !Double.isNaN(latitudes[roadTo[r]]));
+        }
+        this.kilometres = allKilometres;
+
+        this.pointX = new double[numCities];
+        this.pointY = new double[numCities];
+        this.pointZ = new double[numCities];
+        fillBoundPoints();
+        this.heuristicScale = Double.POSITIVE_INFINITY;
+
+        for (int r = 0; r < numRoads; r++) {
+            int index1 = roadFrom[r];
+            int index2 = roadTo[r];
+            double distance;
+            if (!kilometres) {
+                distance = pixelDistance(index1, index2);
+            } else if (!Double.isNaN(givenLengths[r])) {
+                distance = givenLengths[r];
+            } else {
+                distance = haversine(latitudes[index1], longitudes[index1], latitudes[index2], longitudes[index2]);
+            }
+            roadLength[r] = distance;
+            lowerHeuristicScale(r, distance);
+
+            // Set bidirectional road (A->B and B->A)
+            int forward = nextEdge[index1]++;
+            edgeTargets[forward] = index2;
+            edgeWeights[forward] = distance;
+            edgeRoads[forward] = r;
+
+            int backward = nextEdge[index2]++;
+            edgeTargets[backward] = index1;
+            edgeWeights[backward] = distance;
+            edgeRoads[backward] = r;
+        }
+        if (heuristicScale == Double.POSITIVE_INFINITY) {
+            heuristicScale = kilometres ? 0.0 : 1.0;
+        }
+    }
+
+    /**
+     * Graph from arrays that were saved earlier (see GraphFile); nothing is recomputed
+     * except the straight-line bound points. The arrays are used as they are, not copied.
+     */
+    RoadGraph(String[] cityNames, double[] xCoordinates, double[] yCoordinates,
+              double[] latitudes, double[] longitudes, boolean kilometres, double heuristicScale,
+              int[] roadFrom, int[] roadTo, double[] roadLength, boolean[] roadClosed,
+              int[] edgeOffsets, int[] edgeTargets, double[] edgeWeights, int[] edgeRoads) {
+        this.cityNames = cityNames;
+        this.xCoordinates = xCoordinates;
+        this.yCoordinates = yCoordinates;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.kilometres = kilometres;
+        this.heuristicScale = heuristicScale;
+        this.roadFrom = roadFrom;
+        this.roadTo = roadTo;
+        this.roadLength = roadLength;
+        this.roadClosed = roadClosed;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeTargets = edgeTargets;
+        this.edgeWeights = edgeWeights;
+        this.edgeRoads = edgeRoads;
+
+        int numCities = cityNames.length;
+        this.pointX = new double[numCities];
+        this.pointY = new double[numCities];
+        this.pointZ = new double[numCities];
+        fillBoundPoints();
+    }
+
+    // Sphere points from latitude/longitude if every city has them, else map pixels
+    private void fillBoundPoints() {
+        int numCities = cityNames.length;
+        boolean allGeo = true;
+        for (int i = 0; i < numCities && allGeo; i++) {
+            allGeo = !Double.isNaN(latitudes[i]) && !Double.isNaN(longitudes[i]);
+        }
+        for (int i = 0; i < numCities; i++) {
+            if (allGeo) {
+                double phi = Math.toRadians(latitudes[i]);
+                double lambda = Math.toRadians(longitudes[i]);
+                pointX[i] = EARTH_RADIUS_KM * Math.cos(phi) * Math.cos(lambda);
+                pointY[i] = EARTH_RADIUS_KM * Math.cos(phi) * Math.sin(lambda);
+                pointZ[i] = EARTH_RADIUS_KM * Math.sin(phi);
+            } else {
+                pointX[i] = xCoordinates[i];
+                pointY[i] = yCoordinates[i];
+            }
+        }
+    }
+
+    // Great-circle distance in km between two latitude/longitude points
+    private static double haversine(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double phi1 = Math.toRadians(latitude1);
+        double phi2 = Math.toRadians(latitude2);
+        double sinHalfDPhi = Math.sin((phi2 - phi1) / 2);
+        double sinHalfDLambda = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double a = sinHalfDPhi * sinHalfDPhi + Math.cos(phi1) * Math.cos(phi2) * sinHalfDLambda * sinHalfDLambda;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private double pixelDistance(int city1, int city2) {
+        double dx = xCoordinates[city2] - xCoordinates[city1];
+        double dy = yCoordinates[city2] - yCoordinates[city1];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // Straight line between the bound points (a chord, never longer than the great circle)
+    private double pointDistance(int city1, int city2) {
+        double dx = pointX[city2] - pointX[city1];
+        double dy = pointY[city2] - pointY[city1];
+        double dz = pointZ[city2] - pointZ[city1];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    // Keep heuristicScale <= length / straight line for every road; by the triangle
+    // inequality, heuristicScale * straight line then never overestimates a route
+    private void lowerHeuristicScale(int road, double length) {
+        double straight = pointDistance(roadFrom[road], roadTo[road]);
+        if (straight > 0.0 && length / straight < heuristicScale) {
+            heuristicScale = length / straight;
+        }
+    }
+
+    /**
+     * Read both data files and build the graph
+     * @param coordinatesPath Path of city-coordinates.txt ("Name, x, y" or "Name, x, y, lat, lon" per line)
+     * @param roadsPath Path of cities-roads.txt ("CityA - CityB" or "CityA - CityB, km" per line)
+     * @return Loaded graph
+     * @throws FileNotFoundException if one of the files does not exist
+     */
+    public static RoadGraph load(String coordinatesPath, String roadsPath) throws FileNotFoundException {
+        ArrayList<String> cityNamesList = new ArrayList<>();
+        ArrayList<Double> xCoordsList = new ArrayList<>();
+        ArrayList<Double> yCoordsList = new ArrayList<>();
+        ArrayList<Double> latitudeList = new ArrayList<>();
+        ArrayList<Double> longitudeList = new ArrayList<>();
+        HashMap<String, Integer> cityIndex = new HashMap<>();
+
+        Scanner scanner = new Scanner(new File(coordinatesPath));
+        while (scanner.hasNextLine()) {
+            String[] parts = scanner.nextLine().split(", ");  // cityName, x, y[, latitude, longitude]
+
+            if ((parts.length == 3 || parts.length == 5) && !cityIndex.containsKey(parts[0])) {
+                cityIndex.put(parts[0], cityNamesList.size());
+                cityNamesList.add(parts[0]);
+                xCoordsList.add(Double.parseDouble(parts[1]));
+                yCoordsList.add(Double.parseDouble(parts[2]));
+                latitudeList.add(parts.length == 5 ? Double.parseDouble(parts[3]) : Double.NaN);
+                longitudeList.add(parts.length == 5 ? Double.parseDouble(parts[4]) : Double.NaN);
+            }
+        }
+        scanner.close();
+
+        int numCities = cityNamesList.size();
+        String[] names = cityNamesList.toArray(new String[0]);
+        double[] xs = new double[numCities];
+        double[] ys = new double[numCities];
+        double[] latitudes = new double[numCities];
+        double[] longitudes = new double[numCities];
+        for (int i = 0; i < numCities; i++) {
+            xs[i] = xCoordsList.get(i);
+            ys[i] = yCoordsList.get(i);
+            latitudes[i] = latitudeList.get(i);
+            longitudes[i] = longitudeList.get(i);
+        }
+
+        // Growable primitive arrays for the road endpoints (no per-road objects)
+        int[] from = new int[64];
+        int[] to = new int[64];
+        double[] lengths = new double[64]; // NaN where the line gives no length
+        int numRoads = 0;
+
+        scanner = new Scanner(new File(roadsPath));
+        while (scanner.hasNextLine()) {
+            String[] cities = scanner.nextLine().split(" - ");  // start and end point of road
+
+            if (cities.length == 2) {
+                // Optional road length after the second city: "CityA - CityB, 215.5"
+                double length = Double.NaN;
+                int comma = cities[1].indexOf(", ");
+                if (comma != -1) {
+                    length = Double.parseDouble(cities[1].substring(comma + 2));
+                    cities[1] = cities[1].substring(0, comma);
+                }
+                Integer index1 = cityIndex.get(cities[0]);
+                Integer index2 = cityIndex.get(cities[1]);
+
+                // Skip roads that mention unknown cities, same as the drawing code did
+                if (index1 != null && index2 != null) {
+                    if (numRoads == from.length) {
+                        from = Arrays.copyOf(from, numRoads * 2);
+                        to = Arrays.copyOf(to, numRoads * 2);
+                        lengths = Arrays.copyOf(lengths, numRoads * 2);
+                    }
+                    from[numRoads] = index1;
+                    to[numRoads] = index2;
+                    lengths[numRoads] = length;
+                    numRoads++;
+                }
+            }
+        }
+        scanner.close();
+
+        from = Arrays.copyOf(from, numRoads);
+        to = Arrays.copyOf(to, numRoads);
+        lengths = Arrays.copyOf(lengths, numRoads);
+
+        return new RoadGraph(names, xs, ys, latitudes, longitudes, from, to, lengths);
+    }
+
+    public int cityCount() {
+        return cityNames.length;
+    }
+
+    public int roadCount() {
+        return roadFrom.length;
+    }
+
+    public String cityName(int city) {
+        return cityNames[city];
+    }
+
+    public double x(int city) {
+        return xCoordinates[city];
+    }
+
+    public double y(int city) {
+        return yCoordinates[city];
+    }
+
+    /**
+     * @return Latitude in degrees, or NaN if the data file has none
+     */
+    public double latitude(int city) {
+        return latitudes[city];
+    }
+
+    public double longitude(int city) {
+        return longitudes[city];
+    }
+
+    /**
+     * @return "km" if road lengths are kilometres, "px" if they are map pixels
+     */
+    public String distanceUnit() {
+        return kilometres ? "km" : "px";
+    }
+
+    boolean isKilometres() {
+        return kilometres;
+    }
+
+    /**
+     * Smallest road length per unit of straight line over all roads (about 1 for
+     * great-circle lengths, exactly 1 for pixel lengths)
+     */
+    public double heuristicScale() {
+        return heuristicScale;
+    }
+
+    /**
+     * Lower bound on the length of any route between two cities: the straight line
+     * between them times heuristicScale()
+     */
+    public double straightLineBound(int city1, int city2) {
+        return heuristicScale * pointDistance(city1, city2);
+    }
+
+    /**
+     * Get city index from city name (case and Turkish letters are ignored, plate codes work too)
+     * @param cityName Name of the city to find
+     * @return Index of the city, or -1 if not found
+     */
+    public int indexOf(String cityName) {
+        return cityIndex().indexOf(cityName);
+    }
+
+    public CityIndex cityIndex() {
+        CityIndex index = cityIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = cityIndex;
+                if (index == null) {
+                    index = new CityIndex(cityNames);
+                    cityIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    public int roadFrom(int road) {
+        return roadFrom[road];
+    }
+
+    public int roadTo(int road) {
+        return roadTo[road];
+    }
+
+    /**
+     * Length of a road (the length it will have again when reopened, if it is closed)
+     */
+    public double roadLength(int road) {
+        return roadLength[road];
+    }
+
+    public boolean isRoadClosed(int road) {
+        return roadClosed[road];
+    }
+
+    /**
+     * Find a road between two cities
+     * @return Road index, or -1 if no direct road exists
+     */
+    public int findRoad(int city1, int city2) {
+        for (int e = edgeOffsets[city1]; e < edgeOffsets[city1 + 1]; e++) {
+            if (edgeTargets[e] == city2) return edgeRoads[e];
+        }
+        return -1;
+    }
+
+    /**
+     * Close a road: searches treat it as infinitely long until it is reopened
+     */
+    public void closeRoad(int road) {
+        if (roadClosed[road]) return;
+        roadClosed[road] = true;
+        setEdgeWeights(road, Double.POSITIVE_INFINITY);
+    }
+
+    public void reopenRoad(int road) {
+        if (!roadClosed[road]) return;
+        roadClosed[road] = false;
+        setEdgeWeights(road, roadLength[road]);
+    }
+
+    /**
+     * Give a road a new length (for example after a detour); a closed road keeps it for
+     * when it is reopened. Lowers heuristicScale() if needed so A* stays exact.
+     * @param road Road index
+     * @param length New length, not negative
+     */
+    public void setRoadLength(int road, double length) {
+        if (!(length >= 0.0)) {
+            throw new IllegalArgumentException("Road length must be a non-negative number: " + length);
+        }
+        roadLength[road] = length;
+        lowerHeuristicScale(road, length);
+        if (!roadClosed[road]) {
+            setEdgeWeights(road, length);
+        }
+    }
+
+    // Update both directions of a road in place, then tell the listeners
+    private void setEdgeWeights(int road, double weight) {
+        int city = roadFrom[road];
+        double oldWeight = Double.NaN;
+        for (int e = edgeOffsets[city]; e < edgeOffsets[city + 1]; e++) {
+            if (edgeRoads[e] == road) {
+                oldWeight = edgeWeights[e];
+                edgeWeights[e] = weight;
+            }
+        }
+        city = roadTo[road];
+        for (int e = edgeOffsets[city]; e < edgeOffsets[city + 1]; e++) {
+            if (edgeRoads[e] == road) {
+                edgeWeights[e] = weight;
+            }
+        }
+
+        if (oldWeight != weight) {
+            for (RoadChangeListener listener : listeners) {
+                listener.roadChanged(this, road, oldWeight, weight);
+            }
+        }
+    }
+
+    /**
+     * Register a listener that is called after every road change
+     */
+    public void addRoadListener(RoadChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeRoadListener(RoadChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public int edgeCount() {
+        return edgeTargets.length;
+    }
+
+    /**
+     * First edge leaving a city; the city's edges are edgeStart(city) .. edgeEnd(city) - 1
+     */
+    public int edgeStart(int city) {
+        return edgeOffsets[city];
+    }
+
+    public int edgeEnd(int city) {
+        return edgeOffsets[city + 1];
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    public double edgeWeight(int edge) {
+        return edgeWeights[edge];
+    }
+
+    public int edgeRoad(int edge) {
+        return edgeRoads[edge];
+    }
+
+    /**
+     * Hash of the cities and weighted edges, used to tell whether a saved
+     * preprocessing file still belongs to this graph
+     */
+    public long fingerprint() {
+        long hash = cityCount();
+        for (int i = 0; i <= cityCount(); i++) {
+            hash = hash * 31 + edgeOffsets[i];
+        }
+        for (int e = 0; e < edgeTargets.length; e++) {
+            hash = hash * 31 + edgeTargets[e];
+            hash = hash * 31 + Double.doubleToLongBits(edgeWeights[e]);
+        }
+        return hash;
+    }
+
+    /**
+     * Length of the direct road between two cities (scans the roads of city1 only)
+     * @return Road length, or 0.0 if no direct road exists
+     */
+    public double distance(int city1, int city2) {
+        double best = 0.0;
+        for (int e = edgeOffsets[city1]; e < edgeOffsets[city1 + 1]; e++) {
+            if (edgeTargets[e] == city2 && (best == 0.0 || edgeWeights[e] < best)) {
+                best = edgeWeights[e];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Copies of the city arrays, for code that still works on plain arrays
+     */
+    public String[] cityNames() {
+        return cityNames.clone();
+    }
+
+    public double[] xCoordinates() {
+        return xCoordinates.clone();
+    }
+
+    public double[] yCoordinates() {
+        return yCoordinates.clone();
+    }
+}
@@ -0,0 +1,48 @@
+// A point on a road, as returned by snapping a map position to the nearest road.
+
+package navigation;
+
+public final class RoadPosition {
+    private final int road;
+    private final double fraction;
+    private final double x;
+    private final double y;
+    private final double offset;
+
+    RoadPosition(int road, double fraction, double x, double y, double offset) {
+        this.road = road;
+        this.fraction = fraction;
+        this.x = x;
+        this.y = y;
+        this.offset = offset;
+    }
+
+    public int road() {
+        return road;
+    }
+
+    /**
+     * Where the point lies on the road: 0 at roadFrom, 1 at roadTo
+     */
+    public double fraction() {
+        return fraction;
+    }
+
+    /**
+     * Map coordinates of the point on the road
+     */
+    public double x() {
+        return x;
+    }
+
+    public double y() {
+        return y;
+    }
+
+    /**
+     * Distance in map pixels from the snapped position to the road
+     */
+    public double offset() {
+        return offset;
+    }
+}
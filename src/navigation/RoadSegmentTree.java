@@ -0,0 +1,327 @@
+// R-tree over the road line segments in map coordinates, bulk-loaded with
+// Sort-Tile-Recursive (STR): sort the boxes by x, cut them into vertical slices, sort each
+// slice by y and pack runs of NODE_CAPACITY into nodes; repeat one level up until one root
+// is left. Packed this way, nodes barely overlap, and all nodes live in flat arrays.
+// Answers nearest-road queries (snapping a click or a GPS fix) and window queries (the
+// roads inside a viewport). Built for the graph's geometry; closed roads are skipped by
+// nearest() but still returned by window().
+
+package navigation;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public final class RoadSegmentTree {
+    private static final int NODE_CAPACITY = 16;
+
+    private final RoadGraph graph;
+    private final int[] entries;       // road indices in leaf order
+    // Node boxes and children: a leaf's children are entries[childStart .. childStart + childCount),
+    // an inner node's children are nodes with those indices
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+    private final int[] childStart;
+    private final int[] childCount;
+    private final int leafCount;       // nodes 0 .. leafCount - 1 are leaves
+    private final int root;
+
+    private RoadSegmentTree(RoadGraph graph, int[] entries, double[] minX, double[] minY, double[] maxX,
+                            double[] maxY, int[] childStart, int[] childCount, int leafCount, int root) {
+        this.graph = graph;
+        this.entries = entries;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.childStart = childStart;
+        this.childCount = childCount;
+        this.leafCount = leafCount;
+        this.root = root;
+    }
+
+    /**
+     * Bulk-load the tree over every road of the graph
+     */
+    public static RoadSegmentTree build(RoadGraph graph) {
+        int numRoads = graph.roadCount();
+
+        // Level 0 items are the roads themselves, with their segment boxes
+        int[] items = new int[numRoads];
+        double[] itemMinX = new double[numRoads];
+        double[] itemMinY = new double[numRoads];
+        double[] itemMaxX = new double[numRoads];
+        double[] itemMaxY = new double[numRoads];
+        for (int r = 0; r < numRoads; r++) {
+            items[r] = r;
+            double x1 = graph.x(graph.roadFrom(r));
+            double y1 = graph.y(graph.roadFrom(r));
+            double x2 = graph.x(graph.roadTo(r));
+            double y2 = graph.y(graph.roadTo(r));
+            itemMinX[r] = Math.min(x1, x2);
+            itemMinY[r] = Math.min(y1, y2);
+            itemMaxX[r] = Math.max(x1, x2);
+            itemMaxY[r] = Math.max(y1, y2);
+        }
+
+        // Upper bound on the node count: every level has at most ceil(items / capacity) nodes
+        int maxNodes = 1;
+        for (int n = numRoads; n > 1; n = (n + NODE_CAPACITY - 1) / NODE_CAPACITY) {
+            maxNodes += (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        }
+        double[] minX = new double[maxNodes];
+        double[] minY = new double[maxNodes];
+        double[] maxX = new double[maxNodes];
+        double[] maxY = new double[maxNodes];
+        int[] childStart = new int[maxNodes];
+        int[] childCount = new int[maxNodes];
+
+        int[] entries = null;
+        int nodeCount = 0;
+        int leafCount = 0;
+        int levelStart = 0;
+        boolean leafLevel = true;
+
+        while (true) {
+            int count = items.length;
+            strOrder(items, itemMinX, itemMinY, itemMaxX, itemMaxY, leafLevel, minX, minY, maxX, maxY);
+            if (leafLevel) {
+                entries = items.clone();
+            }
+
+            // Pack runs of NODE_CAPACITY consecutive items into new nodes
+            int firstNode = nodeCount;
+            for (int start = 0; start < Math.max(count, 1); start += NODE_CAPACITY) {
+                int end = Math.min(count, start + NODE_CAPACITY);
+                int node = nodeCount++;
+                minX[node] = Double.POSITIVE_INFINITY;
+                minY[node] = Double.POSITIVE_INFINITY;
+                maxX[node] = Double.NEGATIVE_INFINITY;
+                maxY[node] = Double.NEGATIVE_INFINITY;
+                for (int i = start; i < end; i++) {
+                    minX[node] = Math.min(minX[node], box(itemMinX, minX, items[i], leafLevel));
+                    minY[node] = Math.min(minY[node], box(itemMinY, minY, items[i], leafLevel));
+                    maxX[node] = Math.max(maxX[node], box(itemMaxX, maxX, items[i], leafLevel));
+                    maxY[node] = Math.max(maxY[node], box(itemMaxY, maxY, items[i], leafLevel));
+                }
+                // Position in items for now; inner levels turn it into a node index below
+                childStart[node] = start;
+                childCount[node] = end - start;
+            }
+            if (leafLevel) {
+                leafCount = nodeCount;
+            } else {
+                // Children of this level were reordered by strOrder; move them so each node's
+                // children are consecutive node indices
+                relayout(items, levelStart, firstNode - levelStart, minX, minY, maxX, maxY, childStart, childCount);
+                for (int node = firstNode; node < nodeCount; node++) {
+                    childStart[node] += levelStart;
+                }
+            }
+
+            int newNodes = nodeCount - firstNode;
+            if (newNodes == 1) {
+                return new RoadSegmentTree(graph, entries, minX, minY, maxX, maxY, childStart, childCount,
+                        leafCount, firstNode);
+            }
+
+            // Next level: the nodes just made
+            items = new int[newNodes];
+            for (int i = 0; i < newNodes; i++) {
+                items[i] = firstNode + i;
+            }
+            levelStart = firstNode;
+            leafLevel = false;
+        }
+    }
+
+    // Box coordinate of a level item: a road box at the leaf level, a node box above
+    private static double box(double[] itemBoxes, double[] nodeBoxes, int item, boolean leafLevel) {
+        return leafLevel ? itemBoxes[item] : nodeBoxes[item];
+    }
+
+    // Sort items into STR order: slices by box centre x, each slice by box centre y
+    private static void strOrder(int[] items, double[] itemMinX, double[] itemMinY, double[] itemMaxX, double[] itemMaxY,
+                                 boolean leafLevel,
+                                 double[] minX, double[] minY, double[] maxX, double[] maxY) {
+        int count = items.length;
+        if (count <= NODE_CAPACITY) return;
+
+        double[] centerX = new double[count];
+        double[] centerY = new double[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            int item = items[i];
+            centerX[i] = (box(itemMinX, minX, item, leafLevel) + box(itemMaxX, maxX, item, leafLevel)) / 2;
+            centerY[i] = (box(itemMinY, minY, item, leafLevel) + box(itemMaxY, maxY, item, leafLevel)) / 2;
+            order[i] = i;
+        }
+
+        Arrays.sort(order, (a, b) -> Double.compare(centerX[a], centerX[b]));
+        int nodes = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int slices = (int) Math.ceil(Math.sqrt(nodes));
+        int sliceSize = slices * NODE_CAPACITY;
+        for (int start = 0; start < count; start += sliceSize) {
+            Arrays.sort(order, start, Math.min(count, start + sliceSize), (a, b) -> Double.compare(centerY[a], centerY[b]));
+        }
+
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = items[order[i]];
+        }
+        System.arraycopy(sorted, 0, items, 0, count);
+    }
+
+    // Move the nodes of one level into the order given by items, so that the nodes a parent
+    // packs (consecutive items) are also consecutive indices
+    private static void relayout(int[] items, int levelStart, int levelSize, double[] minX, double[] minY,
+                                 double[] maxX, double[] maxY, int[] childStart, int[] childCount) {
+        double[][] boxes = {
+                Arrays.copyOfRange(minX, levelStart, levelStart + levelSize),
+                Arrays.copyOfRange(minY, levelStart, levelStart + levelSize),
+                Arrays.copyOfRange(maxX, levelStart, levelStart + levelSize),
+                Arrays.copyOfRange(maxY, levelStart, levelStart + levelSize)};
+        int[] starts = Arrays.copyOfRange(childStart, levelStart, levelStart + levelSize);
+        int[] counts = Arrays.copyOfRange(childCount, levelStart, levelStart + levelSize);
+        for (int i = 0; i < levelSize; i++) {
+            int from = items[i] - levelStart;
+            int to = levelStart + i;
+            minX[to] = boxes[0][from];
+            minY[to] = boxes[1][from];
+            maxX[to] = boxes[2][from];
+            maxY[to] = boxes[3][from];
+            childStart[to] = starts[from];
+            childCount[to] = counts[from];
+        }
+    }
+
+    /**
+     * Closest open road to a point
+     * @param x Map x
+     * @param y Map y (without the drawing offset)
+     * @param maxDistance Ignore roads farther away than this
+     * @return Position of the closest point on that road, or null if none is close enough
+     */
+    public RoadPosition nearest(double x, double y, double maxDistance) {
+        double[] best = {maxDistance * maxDistance, -1, 0}; // squared distance, road, fraction
+        if (graph.roadCount() > 0) {
+            nearest(root, x, y, best);
+        }
+        if (best[1] == -1) {
+            return null;
+        }
+
+        int road = (int) best[1];
+        double fraction = best[2];
+        double x1 = graph.x(graph.roadFrom(road));
+        double y1 = graph.y(graph.roadFrom(road));
+        double px = x1 + (graph.x(graph.roadTo(road)) - x1) * fraction;
+        double py = y1 + (graph.y(graph.roadTo(road)) - y1) * fraction;
+        return new RoadPosition(road, fraction, px, py, Math.sqrt(best[0]));
+    }
+
+    // Depth-first branch and bound, children visited closest box first
+    private void nearest(int node, double x, double y, double[] best) {
+        int start = childStart[node];
+        int count = childCount[node];
+
+        if (node < leafCount) {
+            for (int i = start; i < start + count; i++) {
+                int road = entries[i];
+                if (graph.isRoadClosed(road)) continue;
+                checkSegment(road, x, y, best);
+            }
+            return;
+        }
+
+        int[] children = new int[count];
+        double[] distances = new double[count];
+        for (int i = 0; i < count; i++) {
+            int child = start + i;
+            double d = boxDistanceSquared(child, x, y);
+            // Insertion sort by box distance (at most NODE_CAPACITY children)
+            int j = i;
+            while (j > 0 && distances[j - 1] > d) {
+                distances[j] = distances[j - 1];
+                children[j] = children[j - 1];
+                j--;
+            }
+            distances[j] = d;
+            children[j] = child;
+        }
+        for (int i = 0; i < count && distances[i] <= best[0]; i++) {
+            nearest(children[i], x, y, best);
+        }
+    }
+
+    // Project the point on the segment, clamped to its ends
+    private void checkSegment(int road, double x, double y, double[] best) {
+        double x1 = graph.x(graph.roadFrom(road));
+        double y1 = graph.y(graph.roadFrom(road));
+        double dx = graph.x(graph.roadTo(road)) - x1;
+        double dy = graph.y(graph.roadTo(road)) - y1;
+        double lengthSquared = dx * dx + dy * dy;
+        double fraction = lengthSquared == 0.0 ? 0.0 : ((x - x1) * dx + (y - y1) * dy) / lengthSquared;
+        fraction = Math.max(0.0, Math.min(1.0, fraction));
+
+        double ex = x1 + dx * fraction - x;
+        double ey = y1 + dy * fraction - y;
+        double squared = ex * ex + ey * ey;
+        if (squared < best[0] || (squared == best[0] && (best[1] == -1 || road < best[1]))) {
+            best[0] = squared;
+            best[1] = road;
+            best[2] = fraction;
+        }
+    }
+
+    private double boxDistanceSquared(int node, double x, double y) {
+        double dx = Math.max(0.0, Math.max(minX[node] - x, x - maxX[node]));
+        double dy = Math.max(0.0, Math.max(minY[node] - y, y - maxY[node]));
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Visit every road whose bounding box meets the window
+     */
+    public void window(double left, double bottom, double right, double top, IntConsumer visitor) {
+        if (graph.roadCount() > 0) {
+            window(root, left, bottom, right, top, visitor);
+        }
+    }
+
+    /**
+     * Roads whose bounding boxes meet the window, for example the roads to draw in a viewport
+     */
+    public int[] window(double left, double bottom, double right, double top) {
+        int[][] found = {new int[16]};
+        int[] size = {0};
+        window(left, bottom, right, top, road -> {
+            if (size[0] == found[0].length) found[0] = Arrays.copyOf(found[0], size[0] * 2);
+            found[0][size[0]++] = road;
+        });
+        return Arrays.copyOf(found[0], size[0]);
+    }
+
+    private void window(int node, double left, double bottom, double right, double top, IntConsumer visitor) {
+        if (minX[node] > right || maxX[node] < left || minY[node] > top || maxY[node] < bottom) return;
+
+        int start = childStart[node];
+        int end = start + childCount[node];
+        if (node < leafCount) {
+            for (int i = start; i < end; i++) {
+                int road = entries[i];
+                int from = graph.roadFrom(road);
+                int to = graph.roadTo(road);
+                if (Math.min(graph.x(from), graph.x(to)) <= right && Math.max(graph.x(from), graph.x(to)) >= left
+                        && Math.min(graph.y(from), graph.y(to)) <= top && Math.max(graph.y(from), graph.y(to)) >= bottom) {
+                    visitor.accept(road);
+                }
+            }
+        } else {
+            for (int child = start; child < end; child++) {
+                window(child, left, bottom, right, top, visitor);
+            }
+        }
+    }
+}
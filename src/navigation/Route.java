@@ -0,0 +1,64 @@
+// Result of a routing query: the visited city indices, the total length and how much
+// work the search did (settled nodes), so the different engines can be compared.
+
+package navigation;
+
+import java.util.ArrayList;
+
+public final class Route {
+    private final int[] cities;
+    private final double distance;
+    private final int settledNodes;
+
+    /**
+     * @param cities City indices from departure to destination
+     * @param distance Total length of the route
+     * @param settledNodes Number of cities the search settled to find it
+     */
+    public Route(int[] cities, double distance, int settledNodes) {
+        this.cities = cities;
+        this.distance = distance;
+        this.settledNodes = settledNodes;
+    }
+
+    public int size() {
+        return cities.length;
+    }
+
+    public int city(int position) {
+        return cities[position];
+    }
+
+    public int source() {
+        return cities[0];
+    }
+
+    public int target() {
+        return cities[cities.length - 1];
+    }
+
+    public int[] cities() {
+        return cities.clone();
+    }
+
+    public double distance() {
+        return distance;
+    }
+
+    public int settledNodes() {
+        return settledNodes;
+    }
+
+    /**
+     * Convert to the city name list used by the drawing code
+     * @param graph Graph the indices belong to
+     * @return City names from departure to destination
+     */
+    public ArrayList<String> toCityNames(RoadGraph graph) {
+        ArrayList<String> path = new ArrayList<>(cities.length);
+        for (int city : cities) {
+            path.add(graph.cityName(city));
+        }
+        return path;
+    }
+}
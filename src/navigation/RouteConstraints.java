@@ -0,0 +1,58 @@
+// Query-time restrictions for ConstrainedPathFinder: cities a vehicle may not pass
+// through, roads it may not use, and the largest number of roads (legs) on the route.
+// Cities and roads are bit sets over their indices, so checking one is a single lookup.
+
+package navigation;
+
+import java.util.BitSet;
+
+public final class RouteConstraints {
+    private final BitSet forbiddenCities = new BitSet();
+    private final BitSet forbiddenRoads = new BitSet();
+    private int maxHops = Integer.MAX_VALUE;
+
+    /**
+     * Never pass through a city (the departure and destination included)
+     */
+    public RouteConstraints forbidCity(int city) {
+        forbiddenCities.set(city);
+        return this;
+    }
+
+    /**
+     * Never use a road (see RoadGraph.findRoad)
+     */
+    public RouteConstraints forbidRoad(int road) {
+        forbiddenRoads.set(road);
+        return this;
+    }
+
+    /**
+     * Use at most maxHops roads; Integer.MAX_VALUE for no limit
+     */
+    public RouteConstraints setMaxHops(int maxHops) {
+        if (maxHops < 0) {
+            throw new IllegalArgumentException("Hop limit must not be negative: " + maxHops);
+        }
+        this.maxHops = maxHops;
+        return this;
+    }
+
+    public boolean isCityForbidden(int city) {
+        return forbiddenCities.get(city);
+    }
+
+    public boolean isRoadForbidden(int road) {
+        return forbiddenRoads.get(road);
+    }
+
+    public int maxHops() {
+        return maxHops;
+    }
+
+    public void clear() {
+        forbiddenCities.clear();
+        forbiddenRoads.clear();
+        maxHops = Integer.MAX_VALUE;
+    }
+}
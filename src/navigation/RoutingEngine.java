@@ -0,0 +1,130 @@
+// Thread-safe front end for the single-threaded path finders.
+// Keeps a pool of workers, each with its own preallocated search arrays, and lends one
+// to every query; at most `parallelism` searches run at once so the number of
+// workspaces stays bounded. replay() runs large query batches on virtual threads.
+
+package navigation;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+public final class RoutingEngine implements PathFinder {
+    private static final int REPLAY_CHUNK = 4096; // queries handled by one virtual thread
+
+    private final Supplier<PathFinder> workerFactory;
+    private final int parallelism;
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<PathFinder> idleWorkers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param workerFactory Creates a new single-threaded path finder (called at most parallelism times)
+     * @param parallelism Maximum number of searches running at the same time
+     */
+    public RoutingEngine(Supplier<PathFinder> workerFactory, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.workerFactory = workerFactory;
+        this.parallelism = parallelism;
+        this.permits = new Semaphore(parallelism);
+    }
+
+    /**
+     * Dijkstra workers, one per available core
+     */
+    public RoutingEngine(RoadGraph graph) {
+        this(() -> new DijkstraPathFinder(graph), Runtime.getRuntime().availableProcessors());
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public Route findRoute(int source, int target) {
+        PathFinder worker = borrow();
+        try {
+            return worker.findRoute(source, target);
+        } finally {
+            giveBack(worker);
+        }
+    }
+
+    @Override
+    public double findDistance(int source, int target) {
+        PathFinder worker = borrow();
+        try {
+            return worker.findDistance(source, target);
+        } finally {
+            giveBack(worker);
+        }
+    }
+
+    /**
+     * Answer a batch of queries concurrently on virtual threads
+     * @param sources Departure city of query i
+     * @param targets Destination city of query i
+     * @return distances[i] for query i (infinity if unreachable)
+     */
+    public double[] replay(int[] sources, int[] targets) {
+        if (sources.length != targets.length) {
+            throw new IllegalArgumentException("sources and targets must have the same length");
+        }
+        double[] distances = new double[sources.length];
+        ArrayList<Future<?>> chunks = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int start = 0; start < sources.length; start += REPLAY_CHUNK) {
+                int from = start;
+                int to = Math.min(sources.length, start + REPLAY_CHUNK);
+
+                // One worker per chunk, so its arrays stay hot for the whole chunk
+                chunks.add(executor.submit(() -> {
+                    PathFinder worker = borrow();
+                    try {
+                        for (int i = from; i < to; i++) {
+                            distances[i] = worker.findDistance(sources[i], targets[i]);
+                        }
+                    } finally {
+                        giveBack(worker);
+                    }
+                }));
+            }
+
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replay query failed", e.getCause());
+        }
+        return distances;
+    }
+
+    private PathFinder borrow() {
+        permits.acquireUninterruptibly();
+        PathFinder worker = idleWorkers.poll();
+        if (worker != null) {
+            return worker;
+        }
+        try {
+            return workerFactory.get();
+        } catch (RuntimeException | Error e) {
+            permits.release(); // no worker to give back, so return the permit here
+            throw e;
+        }
+    }
+
+    private void giveBack(PathFinder worker) {
+        idleWorkers.offer(worker);
+        permits.release();
+    }
+}
@@ -0,0 +1,72 @@
+// Per-search arrays (distances, previous city, settled flags and the heap) that an engine
+// allocates once and reuses. Only the cities touched by the last search are reset, so a
+// short query on a big graph does not pay O(V) for clearing.
+
+package navigation;
+
+import java.util.Arrays;
+
+final class SearchWorkspace {
+    final double[] distances;
+    final int[] previousCity;
+    final boolean[] settled;
+    final IndexedDaryHeap heap;
+
+    private final int[] touched;
+    private int touchedCount;
+
+    SearchWorkspace(int numCities) {
+        distances = new double[numCities];
+        previousCity = new int[numCities];
+        settled = new boolean[numCities];
+        heap = new IndexedDaryHeap(numCities);
+        touched = new int[numCities];
+
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(previousCity, -1);  // -1 means no previous city
+    }
+
+    /**
+     * Forget the previous search
+     */
+    void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int city = touched[i];
+            distances[city] = Double.POSITIVE_INFINITY;
+            previousCity[city] = -1;
+            settled[city] = false;
+        }
+        touchedCount = 0;
+        heap.clear();
+    }
+
+    /**
+     * Store a better tentative distance and queue the city with the given priority
+     */
+    void relax(int city, double distance, int previous, double priority) {
+        if (distances[city] == Double.POSITIVE_INFINITY) {
+            touched[touchedCount++] = city;
+        }
+        distances[city] = distance;
+        previousCity[city] = previous;
+        heap.insertOrDecrease(city, priority);
+    }
+
+    /**
+     * Build the route to target by following previous cities backwards
+     */
+    Route route(int target, int settledNodes) {
+        int length = 0;
+        for (int city = target; city != -1; city = previousCity[city]) {
+            length++;
+        }
+
+        int[] cities = new int[length];
+        int city = target;
+        for (int i = length - 1; i >= 0; i--) {
+            cities[i] = city;
+            city = previousCity[city];
+        }
+        return new Route(cities, distances[target], settledNodes);
+    }
+}
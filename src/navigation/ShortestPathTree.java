@@ -0,0 +1,77 @@
+// Distances and previous cities of a complete Dijkstra run from one source.
+// Any route from that source can be rebuilt from it without searching again.
+
+package navigation;
+
+public final class ShortestPathTree {
+    private final int source;
+    private final double[] distances;
+    private final int[] previousCity;
+
+    ShortestPathTree(int source, double[] distances, int[] previousCity) {
+        this.source = source;
+        this.distances = distances;
+        this.previousCity = previousCity;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    public int cityCount() {
+        return distances.length;
+    }
+
+    /**
+     * @return Shortest distance from the source, or infinity if unreachable
+     */
+    public double distance(int city) {
+        return distances[city];
+    }
+
+    public int previousCity(int city) {
+        return previousCity[city];
+    }
+
+    /**
+     * Rebuild the route from the source to target by following previous cities
+     * @return Route, or null if target is unreachable
+     */
+    public Route routeTo(int target) {
+        if (distances[target] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        int length = 0;
+        for (int city = target; city != -1; city = previousCity[city]) {
+            length++;
+        }
+        int[] cities = new int[length];
+        int city = target;
+        for (int i = length - 1; i >= 0; i--) {
+            cities[i] = city;
+            city = previousCity[city];
+        }
+        return new Route(cities, distances[target], 0);
+    }
+
+    /**
+     * Whether a road change can alter this tree's distances
+     */
+    boolean affectedBy(int city1, int city2, double oldWeight, double newWeight) {
+        return roadChangeAffects(distances[city1], distances[city2], oldWeight, newWeight);
+    }
+
+    /**
+     * Whether changing the road between two cities can alter shortest distances from a
+     * source, given the source's distances to the two cities. A longer road only matters
+     * if some shortest route uses it; a shorter one only if it now beats a distance.
+     */
+    static boolean roadChangeAffects(double distance1, double distance2, double oldWeight, double newWeight) {
+        if (newWeight < oldWeight) {
+            return distance1 + newWeight < distance2 || distance2 + newWeight < distance1;
+        }
+        return (distance1 != Double.POSITIVE_INFINITY && distance1 + oldWeight == distance2)
+                || (distance2 != Double.POSITIVE_INFINITY && distance2 + oldWeight == distance1);
+    }
+}
@@ -0,0 +1,112 @@
+// Bounded LRU cache of complete shortest-path trees keyed by source city.
+// Dispatchers ask from the same few origins (Istanbul, Ankara, Izmir) to many
+// destinations; after the first query from an origin, every later one is answered by
+// walking the cached previous-city array, with no search at all.
+// Methods are synchronized so one cache can be shared between threads.
+// When a road changes, only the trees whose distances can change are dropped.
+
+package navigation;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class ShortestPathTreeCache implements PathFinder, RoadChangeListener {
+    private final DijkstraPathFinder dijkstra;
+    private final long bytesPerTree;
+    private final int maxTrees;
+    private final LinkedHashMap<Integer, ShortestPathTree> trees;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * @param graph Road graph
+     * @param maxBytes Memory cap for the cached distance/previous arrays
+     */
+    public ShortestPathTreeCache(RoadGraph graph, long maxBytes) {
+        this.dijkstra = new DijkstraPathFinder(graph);
+        // One double and one int per city, plus array and object headers
+        this.bytesPerTree = 12L * graph.cityCount() + 64;
+        this.maxTrees = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBytes / bytesPerTree));
+
+        // Access order + removeEldestEntry gives least-recently-used eviction
+        this.trees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree> eldest) {
+                return size() > maxTrees;
+            }
+        };
+        graph.addRoadListener(this);
+    }
+
+    @Override
+    public synchronized Route findRoute(int source, int target) {
+        return tree(source).routeTo(target);
+    }
+
+    /**
+     * Cached tree for a source, computing (and caching) it on a miss
+     */
+    public synchronized ShortestPathTree tree(int source) {
+        ShortestPathTree tree = trees.get(source);
+        if (tree != null) {
+            hits++;
+            return tree;
+        }
+
+        misses++;
+        tree = dijkstra.shortestPathTree(source);
+        trees.put(source, tree);
+        return tree;
+    }
+
+    /**
+     * Drop the cached tree of one source (for example after its roads changed)
+     */
+    public synchronized void invalidate(int source) {
+        trees.remove(source);
+    }
+
+    /**
+     * Drop the trees a road change makes wrong; the others stay cached
+     */
+    @Override
+    public synchronized void roadChanged(RoadGraph graph, int road, double oldWeight, double newWeight) {
+        int city1 = graph.roadFrom(road);
+        int city2 = graph.roadTo(road);
+        Iterator<ShortestPathTree> iterator = trees.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().affectedBy(city1, city2, oldWeight, newWeight)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        trees.clear();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    public int maxTrees() {
+        return maxTrees;
+    }
+
+    /**
+     * Approximate memory held by the cached trees
+     */
+    public synchronized long memoryBytes() {
+        return trees.size() * bytesPerTree;
+    }
+}
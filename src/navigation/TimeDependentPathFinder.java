@@ -0,0 +1,104 @@
+// Earliest-arrival routing with hourly traffic profiles.
+// Dijkstra where a city's label is its arrival time and a road's cost depends on when it
+// is entered. Because the profiles are FIFO, waiting never helps and settling cities in
+// arrival order stays exact. The search is goal-directed like A*: the straight-line bound
+// times the fastest pace on any road is a lower bound on the remaining travel time.
+// As a PathFinder it departs at departureMinutes(). Not thread-safe: each instance owns
+// one reusable workspace.
+
+package navigation;
+
+public final class TimeDependentPathFinder implements PathFinder {
+    private final RoadGraph graph;
+    private final TrafficProfiles profiles;
+    private final SearchWorkspace workspace;
+    private final int[] previousEdge;
+    private double departureMinutes = 8 * 60;
+
+    public TimeDependentPathFinder(RoadGraph graph, TrafficProfiles profiles) {
+        this.graph = graph;
+        this.profiles = profiles;
+        this.workspace = new SearchWorkspace(graph.cityCount());
+        this.previousEdge = new int[graph.cityCount()];
+    }
+
+    /**
+     * Departure time used by findRoute(source, target)
+     */
+    public void setDepartureMinutes(double departureMinutes) {
+        this.departureMinutes = departureMinutes;
+    }
+
+    public double departureMinutes() {
+        return departureMinutes;
+    }
+
+    @Override
+    public Route findRoute(int source, int target) {
+        TimedRoute timed = findRoute(source, target, departureMinutes);
+        return timed == null ? null : timed.route();
+    }
+
+    /**
+     * Earliest-arrival route
+     * @param source Departure city
+     * @param target Destination city
+     * @param departureMinutes Departure time in minutes since midnight
+     * @return Route with the clock time at every city, or null if unreachable
+     */
+    public TimedRoute findRoute(int source, int target, double departureMinutes) {
+        SearchWorkspace ws = workspace;
+        IndexedDaryHeap heap = ws.heap;
+        double[] arrival = ws.distances;
+        boolean[] settled = ws.settled;
+        double pace = profiles.minMinutesPerLength();
+
+        ws.reset();
+        ws.relax(source, departureMinutes, -1, departureMinutes + pace * graph.straightLineBound(source, target));
+        previousEdge[source] = -1;
+        int settledNodes = 0;
+
+        while (!heap.isEmpty()) {
+            int current = heap.pollMin();
+            settled[current] = true;
+            settledNodes++;
+
+            // Reached destination, exit early
+            if (current == target) break;
+
+            double now = arrival[current];
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                int neighbor = graph.edgeTarget(e);
+                if (settled[neighbor] || graph.edgeWeight(e) == Double.POSITIVE_INFINITY) continue; // closed road
+
+                double newArrival = now + profiles.travelMinutes(graph.edgeRoad(e), now);
+                if (newArrival < arrival[neighbor]) {
+                    ws.relax(neighbor, newArrival, current,
+                            newArrival + pace * graph.straightLineBound(neighbor, target));
+                    previousEdge[neighbor] = e;
+                }
+            }
+        }
+
+        if (arrival[target] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        // Walk back from the destination, summing the lengths of the roads actually used
+        int length = 0;
+        for (int city = target; city != -1; city = ws.previousCity[city]) {
+            length++;
+        }
+        int[] cities = new int[length];
+        double[] times = new double[length];
+        double roadLength = 0.0;
+        int city = target;
+        for (int i = length - 1; i >= 0; i--) {
+            cities[i] = city;
+            times[i] = arrival[city];
+            if (previousEdge[city] != -1) roadLength += graph.edgeWeight(previousEdge[city]);
+            city = ws.previousCity[city];
+        }
+        return new TimedRoute(new Route(cities, roadLength, settledNodes), times);
+    }
+}
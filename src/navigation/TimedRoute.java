@@ -0,0 +1,50 @@
+// Result of a time-dependent query: the route plus the clock time at every city on it.
+
+package navigation;
+
+public final class TimedRoute {
+    private final Route route;
+    private final double[] arrivalMinutes; // clock time at route.city(i), departure first
+
+    TimedRoute(Route route, double[] arrivalMinutes) {
+        this.route = route;
+        this.arrivalMinutes = arrivalMinutes;
+    }
+
+    /**
+     * The cities and road length of the route
+     */
+    public Route route() {
+        return route;
+    }
+
+    public double departureMinutes() {
+        return arrivalMinutes[0];
+    }
+
+    public double arrivalMinutes() {
+        return arrivalMinutes[arrivalMinutes.length - 1];
+    }
+
+    /**
+     * Clock time (minutes since midnight of the departure day) at the i-th city of the route
+     */
+    public double arrivalMinutes(int position) {
+        return arrivalMinutes[position];
+    }
+
+    public double travelMinutes() {
+        return arrivalMinutes() - departureMinutes();
+    }
+
+    /**
+     * Format minutes since midnight as "hh:mm", with "+1d" etc. past midnight
+     */
+    public static String clock(double minutes) {
+        long total = Math.round(minutes);
+        long days = Math.floorDiv(total, 24 * 60);
+        long inDay = total - days * 24 * 60;
+        String text = String.format("%02d:%02d", inDay / 60, inDay % 60);
+        return days == 0 ? text : text + " +" + days + "d";
+    }
+}
@@ -0,0 +1,108 @@
+// Result of a multi-stop plan: the stops in visiting order and the road route of every leg.
+
+package navigation;
+
+import java.util.ArrayList;
+
+public final class Tour {
+    private final int[] stops;
+    private final Route[] legs;
+    private final double distance;
+    private final boolean exact;
+    private final long matrixNanos;            // time spent on the stop-to-stop distance matrix
+    private final double matrixPairsPerSecond;
+
+    Tour(int[] stops, Route[] legs, boolean exact, DistanceMatrix matrix) {
+        this.stops = stops;
+        this.legs = legs;
+        this.exact = exact;
+        this.matrixNanos = matrix.elapsedNanos();
+        this.matrixPairsPerSecond = matrix.pairsPerSecond();
+        double total = 0.0;
+        for (Route leg : legs) {
+            total += leg.distance();
+        }
+        this.distance = total;
+    }
+
+    /**
+     * Number of stops, the departure included (a round trip does not repeat it)
+     */
+    public int stopCount() {
+        return stops.length;
+    }
+
+    public int stop(int i) {
+        return stops[i];
+    }
+
+    /**
+     * Copy of the stops in visiting order
+     */
+    public int[] stops() {
+        return stops.clone();
+    }
+
+    public int legCount() {
+        return legs.length;
+    }
+
+    /**
+     * Road route of leg i (from stop i to the next stop, or back to the departure)
+     */
+    public Route leg(int i) {
+        return legs[i];
+    }
+
+    public double legDistance(int i) {
+        return legs[i].distance();
+    }
+
+    public double[] legDistances() {
+        double[] distances = new double[legs.length];
+        for (int i = 0; i < legs.length; i++) {
+            distances[i] = legs[i].distance();
+        }
+        return distances;
+    }
+
+    /**
+     * Total length of all legs
+     */
+    public double distance() {
+        return distance;
+    }
+
+    /**
+     * @return true if the visiting order is proven optimal, false if found by local search
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Wall-clock time of the distance matrix between the stops that the order was planned on
+     */
+    public long matrixNanos() {
+        return matrixNanos;
+    }
+
+    public double matrixPairsPerSecond() {
+        return matrixPairsPerSecond;
+    }
+
+    /**
+     * Legs stitched into one path of city names (stops where legs meet appear once), as
+     * used by the drawing code
+     */
+    public ArrayList<String> toCityNames(RoadGraph graph) {
+        ArrayList<String> names = new ArrayList<>();
+        names.add(graph.cityName(stops[0]));
+        for (Route leg : legs) {
+            for (int i = 1; i < leg.size(); i++) {
+                names.add(graph.cityName(leg.city(i)));
+            }
+        }
+        return names;
+    }
+}
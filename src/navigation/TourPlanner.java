@@ -0,0 +1,268 @@
+// Multi-stop route planning: in which order should a van visit a list of provinces?
+// The pairwise distances between the stops come from one DistanceMatrix run. Up to
+// EXACT_STOP_LIMIT stops the order is solved exactly with Held-Karp dynamic programming
+// (O(2^n * n^2)); larger lists start from a nearest-neighbour tour plus random tours and
+// improve each with 2-opt and Or-opt moves, the starts running in parallel.
+// The local search assumes symmetric distances, which holds because every road is two-way.
+
+package navigation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+public final class TourPlanner {
+    /** Largest stop count (departure included) solved exactly */
+    public static final int EXACT_STOP_LIMIT = 16;
+    private static final int LOCAL_SEARCH_STARTS = 16;
+    private static final int MAX_SEGMENT = 3; // longest segment an Or-opt move relocates
+    private static final double EPSILON = 1e-9;
+
+    private final RoadGraph graph;
+    private final PathFinder legFinder;
+
+    /**
+     * @param graph Road graph
+     * @param legFinder Engine used to route each leg of the final tour
+     */
+    public TourPlanner(RoadGraph graph, PathFinder legFinder) {
+        this.graph = graph;
+        this.legFinder = legFinder;
+    }
+
+    public TourPlanner(RoadGraph graph) {
+        this(graph, new DijkstraPathFinder(graph));
+    }
+
+    /**
+     * Find a short order to visit all stops
+     * @param stops City indices; the first one is the departure and stays first
+     * @param roundTrip true to come back to the departure at the end
+     * @return Planned tour, or null if some stop cannot be reached (on the graph, or by the
+     *         leg finder, which may avoid roads the distance matrix uses)
+     */
+    public Tour plan(int[] stops, boolean roundTrip) {
+        int n = stops.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("A tour needs at least one stop");
+        }
+
+        DistanceMatrix distanceMatrix = DistanceMatrix.compute(graph, stops, stops);
+        double[] matrix = distanceMatrix.toArray(); // [i * n + j]
+        for (double distance : matrix) {
+            if (distance == Double.POSITIVE_INFINITY) return null;
+        }
+
+        boolean exact = n <= EXACT_STOP_LIMIT;
+        int[] order = exact ? heldKarp(matrix, n, roundTrip) : localSearch(matrix, n, roundTrip);
+
+        // Route every leg and map positions back to cities
+        int[] visited = new int[n];
+        for (int i = 0; i < n; i++) {
+            visited[i] = stops[order[i]];
+        }
+        int legCount = n > 1 && roundTrip ? n : n - 1;
+        Route[] legs = new Route[legCount];
+        for (int i = 0; i < legCount; i++) {
+            legs[i] = legFinder.findRoute(visited[i], visited[(i + 1) % n]);
+            if (legs[i] == null) return null;
+        }
+        return new Tour(visited, legs, exact, distanceMatrix);
+    }
+
+    /**
+     * Held-Karp: best[mask][last] = shortest path from stop 0 through the stops in mask, ending at last
+     */
+    private static int[] heldKarp(double[] matrix, int n, boolean roundTrip) {
+        int[] order = new int[n];
+        if (n == 1) return order;
+
+        int free = n - 1; // stops 1..n-1 are bit 0..n-2
+        int masks = 1 << free;
+        double[] best = new double[masks * free];
+        int[] parent = new int[masks * free];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        for (int last = 0; last < free; last++) {
+            best[(1 << last) * free + last] = matrix[last + 1];
+            parent[(1 << last) * free + last] = -1;
+        }
+
+        for (int mask = 1; mask < masks; mask++) {
+            for (int last = 0; last < free; last++) {
+                double current = best[mask * free + last];
+                if ((mask & (1 << last)) == 0 || current == Double.POSITIVE_INFINITY) continue;
+
+                int row = (last + 1) * n + 1;
+                for (int next = 0; next < free; next++) {
+                    if ((mask & (1 << next)) != 0) continue;
+                    int slot = (mask | (1 << next)) * free + next;
+                    double candidate = current + matrix[row + next];
+                    if (candidate < best[slot]) {
+                        best[slot] = candidate;
+                        parent[slot] = last;
+                    }
+                }
+            }
+        }
+
+        // Pick the best last stop (adding the way home for a round trip) and walk the parents back
+        int full = masks - 1;
+        int last = 0;
+        double bestTotal = Double.POSITIVE_INFINITY;
+        for (int candidate = 0; candidate < free; candidate++) {
+            double total = best[full * free + candidate] + (roundTrip ? matrix[(candidate + 1) * n] : 0.0);
+            if (total < bestTotal) {
+                bestTotal = total;
+                last = candidate;
+            }
+        }
+
+        int mask = full;
+        for (int position = n - 1; position >= 1; position--) {
+            order[position] = last + 1;
+            int previous = parent[mask * free + last];
+            mask &= ~(1 << last);
+            last = previous;
+        }
+        return order;
+    }
+
+    /**
+     * Improve several start tours with 2-opt and Or-opt in parallel and keep the shortest
+     */
+    private static int[] localSearch(double[] matrix, int n, boolean roundTrip) {
+        return IntStream.range(0, LOCAL_SEARCH_STARTS).parallel()
+                .mapToObj(start -> {
+                    int[] tour = start == 0 ? nearestNeighbour(matrix, n) : randomTour(n, start);
+                    improve(tour, matrix, n, roundTrip);
+                    return tour;
+                })
+                .min(Comparator.comparingDouble(tour -> length(tour, matrix, n, roundTrip)))
+                .orElseThrow();
+    }
+
+    private static int[] nearestNeighbour(double[] matrix, int n) {
+        int[] tour = new int[n];
+        boolean[] used = new boolean[n];
+        used[0] = true;
+        for (int position = 1; position < n; position++) {
+            int from = tour[position - 1];
+            int closest = -1;
+            for (int stop = 1; stop < n; stop++) {
+                if (!used[stop] && (closest == -1 || matrix[from * n + stop] < matrix[from * n + closest])) {
+                    closest = stop;
+                }
+            }
+            tour[position] = closest;
+            used[closest] = true;
+        }
+        return tour;
+    }
+
+    // Fixed seed per start so a plan is reproducible
+    private static int[] randomTour(int n, long seed) {
+        int[] tour = new int[n];
+        for (int i = 0; i < n; i++) tour[i] = i;
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = n - 1; i > 1; i--) {
+            int j = 1 + random.nextInt(i);
+            int swap = tour[i];
+            tour[i] = tour[j];
+            tour[j] = swap;
+        }
+        return tour;
+    }
+
+    // Apply improving moves until neither 2-opt nor Or-opt finds one
+    private static void improve(int[] tour, double[] matrix, int n, boolean roundTrip) {
+        boolean improved = true;
+        while (improved) {
+            improved = twoOpt(tour, matrix, n, roundTrip) || orOpt(tour, matrix, n, roundTrip);
+        }
+    }
+
+    /**
+     * Reverse tour[i..j] if that shortens the tour
+     */
+    private static boolean twoOpt(int[] tour, double[] matrix, int n, boolean roundTrip) {
+        boolean improved = false;
+        for (int i = 1; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int before = tour[i - 1];
+                int first = tour[i];
+                int last = tour[j];
+                int after = next(tour, j, n, roundTrip);
+                double delta = cost(matrix, n, before, last) + cost(matrix, n, first, after)
+                        - cost(matrix, n, before, first) - cost(matrix, n, last, after);
+                if (delta < -EPSILON) {
+                    for (int low = i, high = j; low < high; low++, high--) {
+                        int swap = tour[low];
+                        tour[low] = tour[high];
+                        tour[high] = swap;
+                    }
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Move a segment of 1..MAX_SEGMENT stops to another place if that shortens the tour
+     */
+    private static boolean orOpt(int[] tour, double[] matrix, int n, boolean roundTrip) {
+        int[] moved = new int[n];
+        for (int length = 1; length <= MAX_SEGMENT; length++) {
+            for (int i = 1; i + length <= n; i++) {
+                int end = i + length - 1;
+                int before = tour[i - 1];
+                int first = tour[i];
+                int last = tour[end];
+                int after = next(tour, end, n, roundTrip);
+                double removeGain = cost(matrix, n, before, first) + cost(matrix, n, last, after)
+                        - cost(matrix, n, before, after);
+
+                for (int p = 0; p < n; p++) {
+                    if (p >= i - 1 && p <= end) continue; // insertion point inside or next to the segment
+                    int a = tour[p];
+                    int b = next(tour, p, n, roundTrip);
+                    double insertCost = cost(matrix, n, a, first) + cost(matrix, n, last, b) - cost(matrix, n, a, b);
+                    if (insertCost < removeGain - EPSILON) {
+                        // Rebuild: everything except the segment, with the segment after position p
+                        int k = 0;
+                        for (int q = 0; q < n; q++) {
+                            if (q >= i && q <= end) continue;
+                            moved[k++] = tour[q];
+                            if (q == p) {
+                                for (int s = i; s <= end; s++) moved[k++] = tour[s];
+                            }
+                        }
+                        System.arraycopy(moved, 0, tour, 0, n);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // Stop after position p, -1 at the end of an open tour
+    private static int next(int[] tour, int p, int n, boolean roundTrip) {
+        if (p + 1 < n) return tour[p + 1];
+        return roundTrip ? tour[0] : -1;
+    }
+
+    // Distance between two stops; a missing stop (-1, end of an open tour) costs nothing
+    private static double cost(double[] matrix, int n, int from, int to) {
+        return from == -1 || to == -1 ? 0.0 : matrix[from * n + to];
+    }
+
+    private static double length(int[] tour, double[] matrix, int n, boolean roundTrip) {
+        double total = 0.0;
+        for (int p = 0; p < n; p++) {
+            total += cost(matrix, n, tour[p], next(tour, p, n, roundTrip));
+        }
+        return total;
+    }
+}
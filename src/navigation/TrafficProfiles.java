@@ -0,0 +1,165 @@
+// Time-dependent travel times: for every road, the minutes needed when entering it at
+// each full hour, kept in one flat float array (SLOTS floats per road, both directions
+// share a profile). Between full hours the time is interpolated linearly, and the day
+// wraps around. Profiles are kept FIFO - leaving later never means arriving earlier - so
+// a label-setting Dijkstra on arrival times stays exact.
+// Road length changes rescale the road's profile (also a change made while the road was
+// closed, once it reopens); closed roads are skipped by the search.
+
+package navigation;
+
+public final class TrafficProfiles implements RoadChangeListener {
+    public static final int SLOTS = 24;
+    public static final double SLOT_MINUTES = 60.0;
+    public static final double DAY_MINUTES = SLOTS * SLOT_MINUTES;
+
+    /** Typical city traffic: slower around 08:00 and 17:00-18:00, multiplies free-flow times */
+    public static final float[] RUSH_HOUR_FACTORS = {
+            1.0f, 1.0f, 1.0f, 1.0f, 1.0f, 1.0f, 1.2f, 1.8f, 2.5f, 1.8f, 1.3f, 1.2f,
+            1.2f, 1.2f, 1.2f, 1.3f, 1.8f, 2.5f, 2.2f, 1.5f, 1.2f, 1.0f, 1.0f, 1.0f
+    };
+
+    private final RoadGraph graph;
+    private final float[] minutes;      // [road * SLOTS + hour]
+    private final double[] profileLengths; // road length the profile was made for
+    private double minMinutesPerLength; // fastest pace over all roads and hours, for A*
+
+    private TrafficProfiles(RoadGraph graph, float[] minutes) {
+        this.graph = graph;
+        this.minutes = minutes;
+        this.profileLengths = new double[graph.roadCount()];
+        for (int road = 0; road < graph.roadCount(); road++) {
+            profileLengths[road] = graph.roadLength(road);
+        }
+        this.minMinutesPerLength = Double.POSITIVE_INFINITY;
+        for (int road = 0; road < graph.roadCount(); road++) {
+            lowerMinPace(road);
+        }
+        if (minMinutesPerLength == Double.POSITIVE_INFINITY) minMinutesPerLength = 0.0;
+        graph.addRoadListener(this);
+    }
+
+    /**
+     * Profiles with the same time at every hour
+     * @param graph Road graph
+     * @param speedPerHour Free-flow speed in road-length units per hour (km/h for km lengths)
+     */
+    public static TrafficProfiles freeFlow(RoadGraph graph, double speedPerHour) {
+        float[] minutes = new float[graph.roadCount() * SLOTS];
+        for (int road = 0; road < graph.roadCount(); road++) {
+            float time = (float) (graph.roadLength(road) / speedPerHour * 60.0);
+            for (int hour = 0; hour < SLOTS; hour++) {
+                minutes[road * SLOTS + hour] = time;
+            }
+        }
+        return new TrafficProfiles(graph, minutes);
+    }
+
+    /**
+     * Replace a road's profile
+     * @param road Road index
+     * @param hourlyMinutes SLOTS travel times in minutes, for entering the road at 00:00, 01:00, ...
+     */
+    public void setProfile(int road, float[] hourlyMinutes) {
+        if (hourlyMinutes.length != SLOTS) {
+            throw new IllegalArgumentException("A profile needs " + SLOTS + " hourly values, got " + hourlyMinutes.length);
+        }
+        System.arraycopy(hourlyMinutes, 0, minutes, road * SLOTS, SLOTS);
+        makeFifo(road);
+        lowerMinPace(road);
+    }
+
+    /**
+     * Multiply a road's current profile hour by hour (for example with RUSH_HOUR_FACTORS)
+     */
+    public void scaleProfile(int road, float[] hourlyFactors) {
+        if (hourlyFactors.length != SLOTS) {
+            throw new IllegalArgumentException("A profile needs " + SLOTS + " hourly values, got " + hourlyFactors.length);
+        }
+        int base = road * SLOTS;
+        for (int hour = 0; hour < SLOTS; hour++) {
+            minutes[base + hour] *= hourlyFactors[hour];
+        }
+        makeFifo(road);
+        lowerMinPace(road);
+    }
+
+    public float slotMinutes(int road, int hour) {
+        return minutes[road * SLOTS + hour];
+    }
+
+    /**
+     * Minutes needed to drive a road when entering it at the given time
+     * @param road Road index
+     * @param clockMinutes Minutes since midnight of the departure day (may exceed one day)
+     */
+    public double travelMinutes(int road, double clockMinutes) {
+        double dayMinutes = clockMinutes - DAY_MINUTES * Math.floor(clockMinutes / DAY_MINUTES);
+        double slotPosition = dayMinutes / SLOT_MINUTES;
+        int hour = (int) slotPosition;
+        if (hour >= SLOTS) hour = SLOTS - 1; // rounding right before midnight
+        double fraction = slotPosition - hour;
+
+        int base = road * SLOTS;
+        float now = minutes[base + hour];
+        float next = minutes[base + (hour + 1 == SLOTS ? 0 : hour + 1)];
+        return now + (next - now) * fraction;
+    }
+
+    /**
+     * Fewest minutes per unit of road length over all roads and hours; multiplied by a
+     * distance lower bound it gives a travel time lower bound
+     */
+    public double minMinutesPerLength() {
+        return minMinutesPerLength;
+    }
+
+    /**
+     * Rescale the profile of a road whose length changed. Compares against the length the
+     * profile was made for, not oldWeight: the graph does not report length changes of a
+     * closed road, so they only show up here when the road reopens.
+     */
+    @Override
+    public void roadChanged(RoadGraph changedGraph, int road, double oldWeight, double newWeight) {
+        if (changedGraph != graph || newWeight == Double.POSITIVE_INFINITY) return;
+        double length = graph.roadLength(road);
+        double oldLength = profileLengths[road];
+        if (length == oldLength) return;
+        profileLengths[road] = length;
+        if (oldLength <= 0.0) return;
+
+        float factor = (float) (length / oldLength);
+        int base = road * SLOTS;
+        for (int hour = 0; hour < SLOTS; hour++) {
+            minutes[base + hour] *= factor;
+        }
+        makeFifo(road);
+        lowerMinPace(road);
+    }
+
+    // FIFO for a linear piece means the time drops by at most one slot length per slot:
+    // lower any value that is more than SLOT_MINUTES above the next one (going round twice
+    // settles the wrap-around)
+    private void makeFifo(int road) {
+        int base = road * SLOTS;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int hour = SLOTS - 1; hour >= 0; hour--) {
+                float next = minutes[base + (hour + 1) % SLOTS];
+                if (minutes[base + hour] > next + SLOT_MINUTES) {
+                    float limit = (float) (next + SLOT_MINUTES);
+                    minutes[base + hour] = limit > next + SLOT_MINUTES ? Math.nextDown(limit) : limit;
+                }
+            }
+        }
+    }
+
+    private void lowerMinPace(int road) {
+        double length = graph.roadLength(road);
+        if (!(length > 0.0)) return;
+        int base = road * SLOTS;
+        for (int hour = 0; hour < SLOTS; hour++) {
+            double pace = minutes[base + hour] / length;
+            if (pace < minMinutesPerLength) minMinutesPerLength = pace;
+        }
+    }
+}